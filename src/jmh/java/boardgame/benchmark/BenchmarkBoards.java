@@ -0,0 +1,69 @@
+package boardgame.benchmark;
+
+import boardgame.model.Board;
+import boardgame.model.Direction;
+import boardgame.model.MoveGenerator;
+import boardgame.model.PackedState;
+import boardgame.solver.BidirectionalSolver;
+
+/**
+ * Creates the boards the benchmarks run on from their names.
+ * <p>
+ * The name {@code standard} denotes {@link Board#STANDARD}, and {@code generated-<size>}
+ * denotes the first solvable {@code size x size} board generated with a step limit of a
+ * third of its size, so every benchmark run uses the same boards.
+ */
+final class BenchmarkBoards {
+
+    private static final String STANDARD = "standard";
+    private static final String GENERATED = "generated-";
+
+    private BenchmarkBoards() {
+    }
+
+    /**
+     * Returns the board with the given name.
+     *
+     * @param name the name of the board
+     * @return the {@link Board}
+     */
+    static Board of(String name) {
+        if (name.equals(STANDARD)) {
+            return Board.STANDARD;
+        }
+        if (!name.startsWith(GENERATED)) {
+            throw new IllegalArgumentException("Unknown board: " + name);
+        }
+        int size = Integer.parseInt(name.substring(GENERATED.length()));
+        var solver = new BidirectionalSolver();
+        for (long seed = 0; ; seed++) {
+            var board = Board.generate(size, size, Math.max(2, size / 3), seed);
+            if (solver.solve(board, board.startState()).solvable()) {
+                return board;
+            }
+        }
+    }
+
+    /**
+     * Returns a packed state of the board where both figures can move, with the figures on different cells.
+     *
+     * @param board the board of the game
+     * @return the packed state
+     */
+    static long movableState(Board board) {
+        var moveGenerator = board.getMoveGenerator();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int none = Direction.NONE.ordinal();
+        int cell1 = -1;
+        for (int cell = 0; cell < board.getCells(); cell++) {
+            if (moveGenerator.generate(PackedState.pack(cell, none, cell, none), moves) > 0) {
+                if (cell1 < 0) {
+                    cell1 = cell;
+                } else {
+                    return PackedState.pack(cell1, none, cell, none);
+                }
+            }
+        }
+        throw new IllegalArgumentException("No figure can move on " + board);
+    }
+}
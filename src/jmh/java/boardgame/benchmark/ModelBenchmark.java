@@ -0,0 +1,106 @@
+package boardgame.benchmark;
+
+import boardgame.model.Board;
+import boardgame.model.BoardGameState;
+import boardgame.model.Direction;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Position;
+import common.TwoPhaseMoveState.TwoPhaseMove;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the operations of {@link BoardGameState} called for every node of a search,
+ * together with their packed counterparts of {@link MoveGenerator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelBenchmark {
+
+    @Param({"standard", "generated-64", "generated-512"})
+    public String board;
+
+    private BoardGameState state;
+    private BoardGameState copy;
+    private TwoPhaseMove<Position> move;
+    private MoveGenerator moveGenerator;
+    private long packed;
+    private int packedMove;
+    private int[] moves;
+
+    @Setup
+    public void setup() {
+        Board benchmarkBoard = BenchmarkBoards.of(board);
+        moveGenerator = benchmarkBoard.getMoveGenerator();
+        packed = BenchmarkBoards.movableState(benchmarkBoard);
+        moves = new int[MoveGenerator.MAX_MOVES];
+        moveGenerator.generate(packed, moves);
+        packedMove = moves[0];
+        state = BoardGameState.fromPacked(benchmarkBoard, packed);
+        copy = state.clone();
+        move = state.getLegalMoves().iterator().next();
+    }
+
+    @Benchmark
+    public Set<TwoPhaseMove<Position>> getLegalMoves() {
+        return state.getLegalMoves();
+    }
+
+    @Benchmark
+    public boolean isLegalMove() {
+        return state.isLegalMove(move);
+    }
+
+    @Benchmark
+    public BoardGameState makeMove() {
+        var next = state.clone();
+        next.makeMove(move);
+        return next;
+    }
+
+    @Benchmark
+    public BoardGameState cloneState() {
+        return state.clone();
+    }
+
+    @Benchmark
+    public int hashCodeState() {
+        return state.hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsState() {
+        return state.equals(copy);
+    }
+
+    @Benchmark
+    public Position getNewPosition() {
+        return Position.getNewPosition(move.from(), Direction.DOWN, 3);
+    }
+
+    @Benchmark
+    public int generatePacked() {
+        return moveGenerator.generate(packed, moves);
+    }
+
+    @Benchmark
+    public long applyPacked() {
+        return moveGenerator.apply(packed, packedMove);
+    }
+}
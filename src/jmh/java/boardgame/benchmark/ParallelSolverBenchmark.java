@@ -0,0 +1,50 @@
+package boardgame.benchmark;
+
+import boardgame.model.Board;
+import boardgame.solver.ParallelBreadthFirstSolver;
+import boardgame.solver.SolverResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the speedup of {@link ParallelBreadthFirstSolver} by the number of threads on large boards.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelSolverBenchmark {
+
+    @Param({"generated-32", "generated-48"})
+    public String board;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Board benchmarkBoard;
+    private ParallelBreadthFirstSolver solver;
+
+    @Setup
+    public void setup() {
+        benchmarkBoard = BenchmarkBoards.of(board);
+        solver = new ParallelBreadthFirstSolver(threads);
+    }
+
+    @Benchmark
+    public SolverResult solve() {
+        return solver.solve(benchmarkBoard, benchmarkBoard.startState());
+    }
+}
@@ -0,0 +1,76 @@
+package boardgame.benchmark;
+
+import boardgame.model.Board;
+import boardgame.model.BoardGameState;
+import boardgame.model.Figure;
+import boardgame.model.Position;
+import boardgame.solver.AStarSolver;
+import boardgame.solver.BidirectionalSolver;
+import boardgame.solver.BreadthFirstSolver;
+import boardgame.solver.IdaStarSolver;
+import boardgame.solver.SolverResult;
+import common.TwoPhaseMoveState.TwoPhaseMove;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import puzzle.solver.BreadthFirstSearch;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of full solves from the start state, comparing the generic breadth-first search
+ * of the puzzle library with the solvers working on packed states.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+    @Param({"standard", "generated-16", "generated-24"})
+    public String board;
+
+    private Board benchmarkBoard;
+    private BoardGameState start;
+
+    @Setup
+    public void setup() {
+        benchmarkBoard = BenchmarkBoards.of(board);
+        start = new BoardGameState(benchmarkBoard, new Figure(), new Figure());
+    }
+
+    @Benchmark
+    public Object breadthFirstSearch() {
+        return new BreadthFirstSearch<TwoPhaseMove<Position>>().solve(start.clone());
+    }
+
+    @Benchmark
+    public SolverResult breadthFirstSolver() {
+        return new BreadthFirstSolver().solve(benchmarkBoard, benchmarkBoard.startState());
+    }
+
+    @Benchmark
+    public SolverResult bidirectionalSolver() {
+        return new BidirectionalSolver().solve(benchmarkBoard, benchmarkBoard.startState());
+    }
+
+    @Benchmark
+    public SolverResult aStarSolver() {
+        return new AStarSolver().solve(benchmarkBoard, benchmarkBoard.startState());
+    }
+
+    @Benchmark
+    public SolverResult idaStarSolver() {
+        return new IdaStarSolver().solve(benchmarkBoard, benchmarkBoard.startState());
+    }
+}
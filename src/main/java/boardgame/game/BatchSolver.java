@@ -0,0 +1,314 @@
+package boardgame.game;
+
+import boardgame.model.Board;
+import boardgame.model.BoardGameState;
+import boardgame.model.DeadStateDetector;
+import boardgame.model.Direction;
+import boardgame.model.Figure;
+import boardgame.model.Position;
+import boardgame.solver.AStarSolver;
+import boardgame.solver.BidirectionalSolver;
+import boardgame.solver.BreadthFirstSolver;
+import boardgame.solver.ExternalBreadthFirstSolver;
+import boardgame.solver.IdaStarSolver;
+import boardgame.solver.OffHeapBreadthFirstSolver;
+import boardgame.solver.Solver;
+import boardgame.solver.SolverResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.tinylog.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Headless solver of many boards, reading requests and writing results as JSON Lines.
+ * <p>
+ * Every input line is a JSON object describing one puzzle:
+ * <pre>
+ * {"id": "level-1", "board": "3 3\n1 -1 2\n1 0 1\n2 1 *\n"}
+ * {"id": "level-2", "boardFile": "levels/2.txt", "figure1": {"row": 0, "column": 1, "lastMove": "RIGHT"}}
+ * </pre>
+ * The board is given either inline in the text format of {@link Board#parse(String)} or as the
+ * path of a board file, and missing figures start in the top-left corner without a last move.
+ * A figure needs both its {@code row} and {@code column}, and at most one figure may have a last move,
+ * as the last moves are cleared once both figures have moved.
+ * Every output line holds the {@code id} of the request together with {@code solvable},
+ * {@code length}, {@code moves} (as {@code [fromRow, fromColumn, toRow, toColumn]} arrays),
+ * {@code nodesExpanded} and {@code millis}, or an {@code error} if the request is invalid or
+ * cannot be solved, e.g. because the search overflows the stack.
+ * <p>
+ * An {@link IdaStarSolver} cannot tell an unsolvable start state apart from a long solution
+ * until its bound passes the maximum depth, so its requests are checked by a
+ * {@link DeadStateDetector} of the move graph first, if the board is small enough for one.
+ * <p>
+ * The puzzles are solved by a fixed pool of worker threads. At most {@link #WINDOW_PER_THREAD}
+ * requests per thread are in flight at a time, so memory stays bounded for inputs of any size,
+ * and the results are written in the order of the input.
+ */
+public final class BatchSolver {
+
+    /**
+     * The number of requests per worker thread that may be solved or waiting to be written at a time.
+     */
+    public static final int WINDOW_PER_THREAD = 4;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final Map<String, Supplier<Solver>> SOLVERS = Map.of(
+            "astar", AStarSolver::new,
+            "bfs", BreadthFirstSolver::new,
+            "bidirectional", BidirectionalSolver::new,
+            "external", ExternalBreadthFirstSolver::new,
+            "idastar", IdaStarSolver::new,
+            "offheap", OffHeapBreadthFirstSolver::new);
+
+    /**
+     * Counts of a batch run.
+     *
+     * @param boards the number of requests
+     * @param solvable the number of solvable puzzles
+     * @param errors the number of invalid requests
+     * @param elapsed the time the run took
+     */
+    public record Summary(long boards, long solvable, long errors, Duration elapsed) {
+
+        /**
+         * Returns the number of requests processed per minute.
+         *
+         * @return the throughput of the run
+         */
+        public double boardsPerMinute() {
+            return elapsed.isZero() ? 0 : boards * 60_000_000_000.0 / elapsed.toNanos();
+        }
+    }
+
+    private record Outcome(String line, boolean solvable, boolean error) {
+    }
+
+    private final Supplier<Solver> solverFactory;
+    private final int threads;
+    private final Map<String, Board> boardFiles = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a batch solver.
+     *
+     * @param solverFactory creates the solver of each request
+     * @param threads the number of worker threads
+     */
+    public BatchSolver(Supplier<Solver> solverFactory, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("The number of threads must be positive!");
+        }
+        this.solverFactory = solverFactory;
+        this.threads = threads;
+    }
+
+    /**
+     * Solves every request of the input and writes the results to the output.
+     *
+     * @param in the requests, one JSON object per line
+     * @param out the destination of the results, one JSON object per line
+     * @return the {@link Summary} of the run
+     * @throws IOException if reading or writing fails
+     * @throws InterruptedException if the thread is interrupted while waiting for a result
+     */
+    public Summary run(BufferedReader in, Writer out) throws IOException, InterruptedException {
+        long startTime = System.nanoTime();
+        long boards = 0;
+        long[] counts = new long[2];
+        var pending = new ArrayDeque<Future<Outcome>>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (pending.size() == threads * WINDOW_PER_THREAD) {
+                    write(pending.poll(), out, counts);
+                }
+                String request = line;
+                pending.add(executor.submit(() -> solve(request)));
+                boards++;
+            }
+            while (!pending.isEmpty()) {
+                write(pending.poll(), out, counts);
+            }
+            out.flush();
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Summary(boards, counts[0], counts[1], Duration.ofNanos(System.nanoTime() - startTime));
+    }
+
+    private static void write(Future<Outcome> future, Writer out, long[] counts)
+            throws IOException, InterruptedException {
+        Outcome outcome;
+        try {
+            outcome = future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        if (outcome.solvable()) {
+            counts[0]++;
+        }
+        if (outcome.error()) {
+            counts[1]++;
+        }
+        out.write(outcome.line());
+        out.write('\n');
+    }
+
+    private Outcome solve(String request) throws IOException {
+        var result = JSON.createObjectNode();
+        try {
+            var node = JSON.readTree(request);
+            if (node == null || !node.isObject()) {
+                throw new IllegalArgumentException("Request must be a JSON object");
+            }
+            result.set("id", node.get("id"));
+            var board = board(node);
+            var figure1 = figure(board, node.get("figure1"));
+            var figure2 = figure(board, node.get("figure2"));
+            if (figure1.lastMove() != Direction.NONE && figure2.lastMove() != Direction.NONE) {
+                throw new IllegalArgumentException("Only one figure can have a last move");
+            }
+            var state = new BoardGameState(board, figure1, figure2);
+            var solver = solverFactory.get();
+            var solution = solver instanceof IdaStarSolver && isDead(board, state.toPacked())
+                    ? SolverResult.unsolvable(0, Duration.ZERO)
+                    : solver.solve(state);
+            result.put("solvable", solution.solvable());
+            result.put("length", solution.length());
+            var moves = result.putArray("moves");
+            for (var move : solution.moves()) {
+                moves.addArray()
+                        .add(move.from().row()).add(move.from().column())
+                        .add(move.to().row()).add(move.to().column());
+            }
+            result.put("nodesExpanded", solution.nodesExpanded());
+            result.put("millis", solution.elapsed().toMillis());
+            return new Outcome(JSON.writeValueAsString(result), solution.solvable(), false);
+        } catch (IOException | RuntimeException e) {
+            result.put("error", String.valueOf(e.getMessage()));
+            return new Outcome(JSON.writeValueAsString(result), false, true);
+        } catch (StackOverflowError e) {
+            result.put("error", "The search is too deep: stack overflow");
+            return new Outcome(JSON.writeValueAsString(result), false, true);
+        }
+    }
+
+    private static boolean isDead(Board board, long state) {
+        return DeadStateDetector.supports(board) && new DeadStateDetector(board, false).isDead(state);
+    }
+
+    private Board board(JsonNode request) {
+        if (request.hasNonNull("board")) {
+            return Board.parse(request.get("board").asText());
+        }
+        if (request.hasNonNull("boardFile")) {
+            return boardFiles.computeIfAbsent(request.get("boardFile").asText(), file -> {
+                try {
+                    return Board.load(Path.of(file));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return Board.STANDARD;
+    }
+
+    private static Figure figure(Board board, JsonNode node) {
+        if (node == null || node.isNull()) {
+            return new Figure();
+        }
+        if (!node.isObject() || !node.path("row").isInt() || !node.path("column").isInt()) {
+            throw new IllegalArgumentException("A figure needs an integer row and column: " + node);
+        }
+        var position = Position.of(node.get("row").asInt(), node.get("column").asInt());
+        if (!board.isValidPosition(position)) {
+            throw new IllegalArgumentException("Invalid position: " + position);
+        }
+        return Figure.of(position, lastMove(node.get("lastMove")));
+    }
+
+    private static Direction lastMove(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return Direction.NONE;
+        }
+        for (var direction : Direction.values()) {
+            if (node.isTextual() && direction.name().equals(node.asText())) {
+                return direction;
+            }
+        }
+        throw new IllegalArgumentException("Invalid last move: " + node + ", expected one of "
+                + Arrays.toString(Direction.values()));
+    }
+
+    /**
+     * Runs a batch from the command line.
+     * <p>
+     * Usage: {@code BatchSolver [--threads N] [--solver astar|bfs|bidirectional|idastar|offheap|external] [input [output]]},
+     * where a missing input or output, or {@code -}, stands for the standard input or output.
+     *
+     * @param args the command line arguments
+     * @throws IOException if reading or writing fails
+     * @throws InterruptedException if the thread is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String solverName = "astar";
+        String input = "-";
+        String output = "-";
+        int positional = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--solver" -> solverName = args[++i];
+                default -> {
+                    if (positional++ == 0) {
+                        input = args[i];
+                    } else {
+                        output = args[i];
+                    }
+                }
+            }
+        }
+        var solverFactory = SOLVERS.get(solverName);
+        if (solverFactory == null) {
+            throw new IllegalArgumentException("Unknown solver: " + solverName + ", expected one of " + SOLVERS.keySet());
+        }
+        var batchSolver = new BatchSolver(solverFactory, threads);
+        try (var in = input.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(input));
+             var out = output.equals("-")
+                     ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                     : Files.newBufferedWriter(Path.of(output))) {
+            var summary = batchSolver.run(in, out);
+            Logger.info("Solved {} boards ({} solvable, {} errors) in {} ms, {} boards/minute",
+                    summary.boards(), summary.solvable(), summary.errors(), summary.elapsed().toMillis(),
+                    Math.round(summary.boardsPerMinute()));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package boardgame.game;
+
+import boardgame.model.Board;
+import boardgame.model.BoardGameState;
+import boardgame.model.Position;
+import javafx.event.EventHandler;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.RowConstraints;
+import javafx.scene.layout.StackPane;
+import org.tinylog.Logger;
+
+/**
+ * Draws a {@link Board} and the figures of a {@link BoardGameState} into a {@link GridPane}.
+ * <p>
+ * The cells are created once per board and indexed by row and column, the figure images are
+ * decoded only once, and each figure is shown by a single {@link ImageView} that is moved between
+ * cells. Rendering a state therefore only touches the cells whose figures have changed.
+ */
+class BoardRenderer {
+
+    private static final double GRID_SIZE = 685;
+    private static final double MIN_CELL_SIZE = 12;
+    private static final double FIGURE_SCALE = 0.95;
+
+    private static Image figure1Image;
+    private static Image figure2Image;
+
+    private final Board board;
+    private final StackPane[][] cells;
+    private final ImageView figure1View;
+    private final ImageView figure2View;
+    private Position figure1Position;
+    private Position figure2Position;
+
+    /**
+     * Creates the cells of a board in the grid, replacing its previous content.
+     *
+     * @param grid the grid to draw into
+     * @param board the board to draw
+     * @param clickHandler the handler of mouse clicks on the cells
+     */
+    BoardRenderer(GridPane grid, Board board, EventHandler<MouseEvent> clickHandler) {
+        this.board = board;
+        grid.getChildren().clear();
+        grid.getColumnConstraints().clear();
+        grid.getRowConstraints().clear();
+        int size = Math.max(board.getRows(), board.getColumns());
+        double gap = size > 8 ? 1 : 10;
+        grid.setHgap(gap);
+        grid.setVgap(gap);
+        double cellSize = Math.max(MIN_CELL_SIZE, (GRID_SIZE - gap * (size - 1)) / size);
+        for (int j = 0; j < board.getColumns(); j++) {
+            grid.getColumnConstraints().add(new ColumnConstraints(cellSize));
+        }
+        for (int i = 0; i < board.getRows(); i++) {
+            grid.getRowConstraints().add(new RowConstraints(cellSize));
+        }
+        cells = new StackPane[board.getRows()][board.getColumns()];
+        for (int i = 0; i < board.getRows(); i++) {
+            for (int j = 0; j < board.getColumns(); j++) {
+                StackPane cell = createCell(i, j);
+                cell.setOnMouseClicked(clickHandler);
+                cells[i][j] = cell;
+                grid.add(cell, j, i);
+            }
+        }
+        loadImages();
+        figure1View = createFigureView(figure1Image, cellSize);
+        figure2View = createFigureView(figure2Image, cellSize);
+        Logger.info("Table cells are initialized");
+    }
+
+    private static synchronized void loadImages() {
+        if (figure1Image == null) {
+            figure1Image = new Image(BoardRenderer.class.getResourceAsStream("/figure1.png"));
+            figure2Image = new Image(BoardRenderer.class.getResourceAsStream("/figure2.png"));
+        }
+    }
+
+    private static ImageView createFigureView(Image image, double cellSize) {
+        ImageView view = new ImageView(image);
+        view.setFitWidth(cellSize * FIGURE_SCALE);
+        view.setFitHeight(cellSize * FIGURE_SCALE);
+        return view;
+    }
+
+    private StackPane createCell(int row, int column) {
+        StackPane cell = new StackPane();
+        cell.getStyleClass().add("cell");
+        Label label;
+        var position = Position.of(row, column);
+        if (position.equals(board.getTarget())) {
+            label = new Label("*");
+            cell.getStyleClass().add("target");
+        } else {
+            label = new Label(((Integer) board.getSteps(position)).toString());
+        }
+        cell.getChildren().add(label);
+        return cell;
+    }
+
+    /**
+     * Shows the figures of a state, moving only the figures whose position has changed.
+     *
+     * @param state the state to show
+     */
+    void render(BoardGameState state) {
+        var position1 = state.getFigure1().position();
+        if (!position1.equals(figure1Position)) {
+            moveFigure(figure1View, figure1Position, position1);
+            figure1Position = position1;
+        }
+        var position2 = state.getFigure2().position();
+        if (!position2.equals(figure2Position)) {
+            moveFigure(figure2View, figure2Position, position2);
+            figure2Position = position2;
+        }
+    }
+
+    private void moveFigure(ImageView view, Position from, Position to) {
+        if (from != null) {
+            getCell(from).getChildren().remove(view);
+        }
+        getCell(to).getChildren().add(view);
+    }
+
+    /**
+     * Returns the cell at a position.
+     *
+     * @param position the position on the board
+     * @return the {@link StackPane} of the cell
+     */
+    StackPane getCell(Position position) {
+        return cells[position.row()][position.column()];
+    }
+
+    /**
+     * Returns the board drawn by the renderer.
+     *
+     * @return the {@link Board}
+     */
+    Board getBoard() {
+        return board;
+    }
+}
@@ -1,10 +1,14 @@
 package boardgame.game;
 
+import boardgame.model.Board;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.tinylog.Logger;
+
+import java.nio.file.Path;
 
 public class GameApplication extends Application {
 
@@ -12,10 +16,23 @@ public class GameApplication extends Application {
     public void start(Stage stage) throws Exception {
         Parent root = FXMLLoader.load(getClass().getResource("/home.fxml"));
         stage.setTitle("JavaFX Board Game");
+        String boardFile = getParameters().getNamed().get("board");
+        if (boardFile != null) {
+            Board board = Board.load(Path.of(boardFile));
+            Logger.info("Loaded {} from {}", board, boardFile);
+            stage.setUserData(board);
+        }
         Scene scene = new Scene(root);
         stage.setScene(scene);
         stage.setResizable(false);
         stage.show();
+        Thread.ofVirtual().start(Leaderboard::getDefault);
+        Thread.ofVirtual().start(GameHistory::getDefault);
+    }
 
+    @Override
+    public void stop() {
+        GameHistory.closeDefault();
+        GameResultStore.closeDefault();
     }
 }
@@ -1,78 +1,242 @@
 package boardgame.game;
 
+import boardgame.model.Board;
 import boardgame.model.BoardGameState;
-import boardgame.model.Direction;
+import boardgame.model.DeadStateDetector;
 import boardgame.model.Figure;
+import boardgame.model.MoveRecording;
 import boardgame.model.Position;
+import boardgame.model.StateHistory;
+import boardgame.solver.DistanceDatabase;
+import boardgame.solver.HintEngine;
+import boardgame.solver.SolveCache;
 import common.TwoPhaseMoveState;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
 import javafx.scene.control.Alert;
-import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
+import javafx.stage.Stage;
 import org.tinylog.Logger;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
 public class GameController {
 
+    private static final int MAX_DATABASE_CELLS = 1024;
+    private static final int SOLVE_CACHE_CAPACITY = 1 << 16;
+    private static final Path DISTANCES_DIRECTORY = Path.of(System.getProperty("user.home"), ".cache", "boardgame");
+
     public String playerName;
 
+    private Board board;
+
+    private BoardRenderer renderer;
+
+    private DistanceDatabase distances;
+
+    private SolveCache solveCache;
+
+    private HintEngine hintEngine;
+
+    private DeadStateDetector deadStateDetector;
+
+    private final List<StackPane> hintedCells = new ArrayList<>();
+
     @FXML
     private GridPane grid;
 
     @FXML
     private TextField numberOfMovesField;
 
+    @FXML
+    private TextField movesLeftField;
+
     private int moveCount;
 
+    private StateHistory history;
+
     private BoardGameState gameState = null;
 
     private StackPane selectedFrom = null;
 
-    @FXML
-    private void initialize() {
-        initializeCells();
-        gameState = new BoardGameState(new Figure(), new Figure());
+    /**
+     * Sets the board to play on and starts a new game. The distance database and the dead state
+     * detector of the board are loaded in the background, and are used once they are ready.
+     *
+     * @param board the {@link Board} of the game
+     */
+    public void setBoard(Board board) {
+        this.board = board;
+        distances = null;
+        deadStateDetector = null;
+        if (hintEngine != null) {
+            hintEngine.close();
+        }
+        solveCache = new SolveCache(board, SOLVE_CACHE_CAPACITY);
+        hintEngine = new HintEngine(solveCache, null, Platform::runLater);
+        renderer = new BoardRenderer(grid, board, this::handleMouseClick);
+        startGame();
+        if (board.getCells() <= MAX_DATABASE_CELLS) {
+            loadDistances(board);
+        } else {
+            Logger.info("No distance database for {}", board);
+        }
+        if (DeadStateDetector.supports(board)) {
+            buildDeadStateDetector(board);
+        }
+    }
+
+    private void startGame() {
+        gameState = new BoardGameState(board, new Figure(), new Figure());
+        renderer.render(gameState);
         moveCount = 0;
+        history = StateHistory.of(gameState.toPacked());
         numberOfMovesField.setText("0");
+        hintEngine.cancel();
+        clearHint();
+        updateMovesLeft();
     }
 
-    private void initializeCells() {
-        grid.getChildren().clear();
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                StackPane cell = createCell(i, j);
-                grid.add(cell, j, i);
+    private void buildDeadStateDetector(Board target) {
+        Thread.ofVirtual().start(() -> {
+            try {
+                var detector = target.getDeadStateDetector();
+                Platform.runLater(() -> {
+                    if (board == target) {
+                        deadStateDetector = detector;
+                        Logger.info("Dead state detector of {} is built", target);
+                    }
+                });
+            } catch (RuntimeException | OutOfMemoryError e) {
+                Logger.error("Error building dead state detector: {}", e.getMessage());
             }
+        });
+    }
+
+    private void loadDistances(Board target) {
+        Thread.ofVirtual().start(() -> {
+            DistanceDatabase database;
+            try {
+                try {
+                    Files.createDirectories(DISTANCES_DIRECTORY);
+                    database = DistanceDatabase.open(target, DISTANCES_DIRECTORY);
+                } catch (IOException e) {
+                    Logger.error("Error loading distance database: {}", e.getMessage());
+                    database = DistanceDatabase.build(target);
+                }
+            } catch (RuntimeException e) {
+                Logger.error("Error building distance database: {}", e.getMessage());
+                return;
+            }
+            var loaded = database;
+            Platform.runLater(() -> {
+                if (board == target) {
+                    distances = loaded;
+                    hintEngine.close();
+                    hintEngine = new HintEngine(solveCache, loaded, Platform::runLater);
+                    clearHint();
+                    updateMovesLeft();
+                    Logger.info("Distance database of {} is loaded", target);
+                }
+            });
+        });
+    }
+
+    private void updateMovesLeft() {
+        if (distances == null) {
+            movesLeftField.setText("?");
+            return;
         }
-        addFigureToCell(new Position(0, 0), "/figure1.png");
-        addFigureToCell(new Position(0, 0), "/figure2.png");
-        Logger.info("Table cells are initialized");
+        int distance = distances.distance(gameState.toPacked());
+        movesLeftField.setText(distance == DistanceDatabase.UNSOLVABLE ? "-" : String.valueOf(distance));
     }
 
-    private StackPane createCell(int row, int column) {
-        StackPane cell = new StackPane();
-        cell.getStyleClass().add("cell");
-        Label label;
-        if (row == 7 && column == 7) {
-            label = new Label("*");
-        } else {
-            label = new Label(((Integer) BoardGameState.table[row][column]).toString());
+    @FXML
+    private void handleHint() {
+        hintEngine.requestHint(gameState.toPacked(), this::showHint);
+    }
+
+    @FXML
+    private void handleUndo() {
+        if (history.canUndo()) {
+            history = history.undo();
+            stepTo(history.state());
+            Logger.info("Move undone");
+        }
+    }
+
+    @FXML
+    private void handleRedo() {
+        if (history.canRedo()) {
+            history = history.redo();
+            stepTo(history.state());
+            Logger.info("Move redone");
+        }
+    }
+
+    private void stepTo(long state) {
+        hintEngine.cancel();
+        clearHint();
+        if (selectedFrom != null) {
+            selectedFrom.getStyleClass().remove("selected");
+            selectedFrom = null;
+        }
+        gameState = BoardGameState.fromPacked(board, state);
+        showState();
+    }
+
+    private void showState() {
+        moveCount = history.depth();
+        numberOfMovesField.setText(String.valueOf(moveCount));
+        updateMovesLeft();
+        renderer.render(gameState);
+    }
+
+    @FXML
+    private void handleLeaderboard() throws IOException {
+        FXMLLoader loader = new FXMLLoader(getClass().getResource("/leaderboard.fxml"));
+        Parent root = loader.load();
+        LeaderboardController leaderboardController = loader.getController();
+        leaderboardController.setBoard(board);
+        Stage stage = new Stage();
+        stage.setTitle("Leaderboard");
+        stage.initOwner(grid.getScene().getWindow());
+        stage.setScene(new Scene(root));
+        stage.show();
+    }
+
+    private void showHint(HintEngine.Hint hint) {
+        clearHint();
+        if (!hint.hasMove()) {
+            Logger.info("No move to suggest");
+            return;
         }
-        cell.getChildren().add(label);
-        cell.setOnMouseClicked(this::handleMouseClick);
-        return cell;
+        Logger.info("{} hint: {} -> {}", hint.exact() ? "Exact" : "Partial", hint.from(), hint.to());
+        highlightCell(hint.from(), "hint-from");
+        highlightCell(hint.to(), "hint-to");
+    }
+
+    private void highlightCell(Position position, String styleClass) {
+        var cell = renderer.getCell(position);
+        cell.getStyleClass().add(styleClass);
+        hintedCells.add(cell);
+    }
+
+    private void clearHint() {
+        for (var cell : hintedCells) {
+            cell.getStyleClass().removeAll("hint-from", "hint-to");
+        }
+        hintedCells.clear();
     }
 
     @FXML
@@ -88,7 +252,7 @@ public class GameController {
     private Position getClickedPosition(StackPane cell) {
         int row = GridPane.getRowIndex(cell);
         int column = GridPane.getColumnIndex(cell);
-        return new Position(row, column);
+        return Position.of(row, column);
     }
 
     private void handleFirstClick(StackPane cell) {
@@ -106,11 +270,12 @@ public class GameController {
         Position position = getClickedPosition(cell);
         TwoPhaseMoveState.TwoPhaseMove<Position> move = new TwoPhaseMoveState.TwoPhaseMove<>(getClickedPosition(selectedFrom), position);
         if (gameState.isLegalMove(move)) {
+            hintEngine.cancel();
+            clearHint();
             gameState.makeMove(move);
+            history = history.push(gameState.toPacked());
             Logger.info("Move made: {}", move);
-            moveCount++;
-            numberOfMovesField.setText(String.valueOf(moveCount));
-            updateBoard();
+            showState();
             handleSolved();
             handleLostGame();
         } else {
@@ -121,36 +286,7 @@ public class GameController {
     }
 
     private boolean isOnForbiddenCell(Position pos) {
-        return BoardGameState.table[pos.row()][pos.column()] == 0;
-    }
-
-    private void updateBoard() {
-        for (var node : grid.getChildren()) {
-            if (node instanceof StackPane cell) {
-                cell.getChildren().removeIf(child -> child instanceof ImageView);
-            }
-        }
-
-        addFigureToCell(gameState.getFigure1().position(), "/figure1.png");
-        addFigureToCell(gameState.getFigure2().position(), "/figure2.png");
-    }
-
-    private void addFigureToCell(Position position, String imagePath) {
-        ImageView figureImg = new ImageView(new Image(getClass().getResourceAsStream(imagePath)));
-        figureImg.setFitWidth(75);
-        figureImg.setFitHeight(75);
-
-        for (var node : grid.getChildren()) {
-            if (node instanceof StackPane cell) {
-                int row = GridPane.getRowIndex(cell);
-                int column = GridPane.getColumnIndex(cell);
-
-                if (row == position.row() && column == position.column()) {
-                    cell.getChildren().add(figureImg);
-                    break;
-                }
-            }
-        }
+        return board.getSteps(pos) == 0;
     }
 
     private void handleSolved(){
@@ -159,56 +295,43 @@ public class GameController {
         }
     }
 
+    private boolean isUnsolvable() {
+        return deadStateDetector != null && deadStateDetector.isDead(gameState.toPacked());
+    }
+
     private void handleLostGame(){
-        if (isOnForbiddenCell(gameState.getFigure1().position()) ||
+        if (isUnsolvable() || isOnForbiddenCell(gameState.getFigure1().position()) ||
                 isOnForbiddenCell(gameState.getFigure2().position()) ||
-                ((gameState.getFigure1().position().equals(BoardGameState.FINAL_CELL) && gameState.getFigure1().lastMove().equals(Direction.NONE))
-                        || (gameState.getFigure2().position().equals(BoardGameState.FINAL_CELL) && gameState.getFigure2().lastMove().equals(Direction.NONE)))
-                        && !gameState.isSolved()) {
+                board.isLost(gameState.toPacked())) {
             showGameLostAlert();
         }
     }
 
     private void showSolvedAlert() {
-        saveGameStateToJson(true);
+        saveGameResult(true);
         final var alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setHeaderText("Game Over");
         alert.setContentText(String.format("Congratulations %s, you have solved the puzzle in %d moves!", playerName, moveCount));
         alert.showAndWait();
-        initialize();
+        startGame();
     }
 
     private void showGameLostAlert() {
-        saveGameStateToJson(false);
+        saveGameResult(false);
         final var alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setHeaderText("Game Over");
         alert.setContentText("You have no more possible moves");
         alert.showAndWait();
-        initialize();
+        startGame();
     }
 
-    private void saveGameStateToJson(boolean solved) {
-        ObjectMapper mapper = new ObjectMapper();
-        GameSaveData saveData = new GameSaveData(playerName, moveCount, solved);
-
-        File file = new File("game_save.json");
-        List<GameSaveData> list;
-
-        try {
-            if (file.exists() && file.length() > 0) {
-                list = mapper.readValue(file, new TypeReference<List<GameSaveData>>() {});
-            } else {
-                list = new ArrayList<>();
-            }
-
-            list.add(saveData);
-
-            mapper.writerWithDefaultPrettyPrinter().writeValue(file, list);
-
-        } catch (IOException e) {
-            Logger.error("Error saving game state: {}", e.getMessage());
+    private void saveGameResult(boolean solved) {
+        var recording = new MoveRecording(board);
+        long[] path = history.path();
+        for (int i = 1; i < path.length; i++) {
+            recording.record(path[i]);
         }
+        GameResultStore.getDefault().append(new GameSaveData(playerName, moveCount, solved,
+                System.currentTimeMillis(), recording.encode(), board.getId()), board);
     }
 }
-
-
@@ -0,0 +1,448 @@
+package boardgame.game;
+
+import org.tinylog.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Columnar, memory-mapped storage of finished games for fast aggregate queries.
+ * <p>
+ * The history is a directory holding a dictionary of player names and a sequence of segment
+ * files of {@link #SEGMENT_ROWS} rows each. A segment stores its columns one after the other:
+ * the player id ({@code int}), the move count ({@code int}) and the timestamp ({@code long})
+ * of every row, followed by a bitset of the solved flags. Segments are mapped into memory,
+ * new rows are written into the columns of the last segment, and its row count in the header
+ * is updated last, so readers never see a partially written row. Aggregates are computed by
+ * scanning the mapped columns, without creating an object per row.
+ */
+public final class GameHistory implements AutoCloseable {
+
+    /**
+     * The number of rows of a segment.
+     */
+    public static final int SEGMENT_ROWS = 1 << 16;
+
+    private static final int MAGIC = 0x42474848;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int ROW_COUNT_OFFSET = 8;
+    private static final long PLAYER_OFFSET = HEADER_SIZE;
+    private static final long MOVE_COUNT_OFFSET = PLAYER_OFFSET + (long) Integer.BYTES * SEGMENT_ROWS;
+    private static final long TIMESTAMP_OFFSET = MOVE_COUNT_OFFSET + (long) Integer.BYTES * SEGMENT_ROWS;
+    private static final long SOLVED_OFFSET = TIMESTAMP_OFFSET + (long) Long.BYTES * SEGMENT_ROWS;
+    private static final long SEGMENT_SIZE = SOLVED_OFFSET + SEGMENT_ROWS / Byte.SIZE;
+    private static final String PLAYERS_FILE = "players.dict";
+
+    /**
+     * The directory of the default history.
+     */
+    public static final Path DEFAULT_DIRECTORY = Path.of("game_history");
+
+    private static GameHistory defaultHistory;
+
+    /**
+     * Aggregated statistics of a set of games.
+     *
+     * @param games the number of games
+     * @param wins the number of solved games
+     * @param totalMoves the sum of the move counts of all games
+     * @param bestMoveCount the fewest moves of a solved game, or {@link Integer#MAX_VALUE} if there is none
+     * @param firstTimestamp the earliest timestamp, or {@link Long#MAX_VALUE} if there are no games
+     * @param lastTimestamp the latest timestamp, or {@link Long#MIN_VALUE} if there are no games
+     */
+    public record Summary(long games, long wins, long totalMoves, int bestMoveCount,
+                          long firstTimestamp, long lastTimestamp) {
+
+        /**
+         * Returns the ratio of solved games.
+         *
+         * @return the win rate
+         */
+        public double winRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        /**
+         * Returns the average number of moves of a game.
+         *
+         * @return the average move count
+         */
+        public double averageMoves() {
+            return games == 0 ? 0 : (double) totalMoves / games;
+        }
+    }
+
+    private static final Summary EMPTY = new Summary(0, 0, 0, Integer.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE);
+
+    private final Path directory;
+    private final List<String> players = new ArrayList<>();
+    private final Map<String, Integer> playerIds = new HashMap<>();
+    private final DataOutputStream playersOut;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private long rows;
+    private Runnable detach = () -> {
+    };
+
+    private GameHistory(Path directory) throws IOException {
+        this.directory = directory;
+        var playersPath = directory.resolve(PLAYERS_FILE);
+        if (Files.exists(playersPath)) {
+            try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(playersPath)))) {
+                while (true) {
+                    String name;
+                    try {
+                        name = in.readUTF();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    playerIds.put(name, players.size());
+                    players.add(name);
+                }
+            }
+        }
+        playersOut = new DataOutputStream(Channels.newOutputStream(FileChannel.open(playersPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)));
+        for (int index = 0; Files.exists(segmentPath(index)); index++) {
+            var segment = map(segmentPath(index));
+            if (segment.getInt(0) != MAGIC || segment.getInt(4) != VERSION) {
+                throw new IOException("Invalid history segment: " + segmentPath(index));
+            }
+            segments.add(segment);
+            rows += segment.getInt(ROW_COUNT_OFFSET);
+        }
+    }
+
+    /**
+     * Opens the history stored in a directory, creating the directory if it does not exist.
+     *
+     * @param directory the directory of the history
+     * @return the opened {@code GameHistory}
+     * @throws IOException if the files of the history cannot be read
+     */
+    public static GameHistory open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return new GameHistory(directory);
+    }
+
+    /**
+     * Returns the history in {@link #DEFAULT_DIRECTORY}, opening it on first use. An empty
+     * history is filled from {@link GameResultStore#getDefault()}, and the games appended to
+     * the store later are appended to the history as well.
+     *
+     * @return the default {@code GameHistory}
+     * @throws UncheckedIOException if the history cannot be opened or filled
+     */
+    public static synchronized GameHistory getDefault() {
+        if (defaultHistory == null) {
+            try {
+                defaultHistory = open(DEFAULT_DIRECTORY, GameResultStore.getDefault());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        return defaultHistory;
+    }
+
+    /**
+     * Opens the history stored in a directory and keeps it updated with the games appended to a
+     * result store. The history holds the first games of the store in the order of the log, so the
+     * games it does not hold yet, such as the ones appended while it was closed, are replayed
+     * from the log first, and the games appended meanwhile are added after them, so no game is
+     * missed or added twice.
+     *
+     * @param directory the directory of the history
+     * @param store the result store the games are taken from
+     * @return the opened {@code GameHistory}
+     * @throws IOException if the history cannot be opened or filled
+     * @throws InterruptedException if the thread is interrupted while waiting for the store
+     */
+    static GameHistory open(Path directory, GameResultStore store) throws IOException, InterruptedException {
+        var history = open(directory);
+        long[] skipped = {history.size()};
+        Consumer<GameSaveData> listener = result -> {
+            if (skipped[0] > 0) {
+                skipped[0]--;
+            } else {
+                history.appendUnchecked(result);
+            }
+        };
+        try {
+            store.readAndListen(listener);
+            if (skipped[0] > 0) {
+                Logger.warn("The game history holds {} games more than {}", skipped[0], store.getPath());
+            }
+            history.detach = () -> store.removeListener(listener);
+        } catch (UncheckedIOException e) {
+            history.close();
+            throw e.getCause();
+        } catch (IOException | InterruptedException e) {
+            history.close();
+            throw e;
+        }
+        return history;
+    }
+
+    /**
+     * Closes the default history if it has been opened.
+     */
+    public static synchronized void closeDefault() {
+        if (defaultHistory != null) {
+            try {
+                defaultHistory.close();
+            } catch (IOException e) {
+                Logger.error("Error closing game history: {}", e.getMessage());
+            }
+            defaultHistory = null;
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("segment-%05d.col", index));
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        }
+    }
+
+    /**
+     * Appends a game to the history.
+     *
+     * @param result the result of the game
+     * @throws IOException if the history cannot be written
+     */
+    public synchronized void append(GameSaveData result) throws IOException {
+        int row = (int) (rows % SEGMENT_ROWS);
+        if (row == 0 && rows / SEGMENT_ROWS == segments.size()) {
+            var segment = map(segmentPath(segments.size()));
+            segment.putInt(0, MAGIC).putInt(4, VERSION).putInt(ROW_COUNT_OFFSET, 0);
+            segments.add(segment);
+        }
+        var segment = segments.get(segments.size() - 1);
+        segment.putInt((int) (PLAYER_OFFSET + (long) Integer.BYTES * row), playerId(result.playerName));
+        segment.putInt((int) (MOVE_COUNT_OFFSET + (long) Integer.BYTES * row), result.moveCount);
+        segment.putLong((int) (TIMESTAMP_OFFSET + (long) Long.BYTES * row), result.timestamp);
+        int solvedIndex = (int) (SOLVED_OFFSET + row / Byte.SIZE);
+        byte solvedByte = segment.get(solvedIndex);
+        int mask = 1 << (row % Byte.SIZE);
+        segment.put(solvedIndex, (byte) (result.solved ? solvedByte | mask : solvedByte & ~mask));
+        segment.putInt(ROW_COUNT_OFFSET, row + 1);
+        rows++;
+    }
+
+    private void appendUnchecked(GameSaveData result) {
+        try {
+            append(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int playerId(String playerName) throws IOException {
+        String name = playerName == null ? "" : playerName;
+        var id = playerIds.get(name);
+        if (id == null) {
+            playersOut.writeUTF(name);
+            playersOut.flush();
+            id = players.size();
+            playerIds.put(name, id);
+            players.add(name);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the number of games in the history.
+     *
+     * @return the number of rows
+     */
+    public synchronized long size() {
+        return rows;
+    }
+
+    /**
+     * Returns the names of the players in the order of their first game.
+     *
+     * @return the player dictionary
+     */
+    public synchronized List<String> getPlayers() {
+        return List.copyOf(players);
+    }
+
+    /**
+     * Aggregates every game of the history.
+     *
+     * @return the {@link Summary} of all games
+     */
+    public Summary aggregate() {
+        return aggregate(-1, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Aggregates the games of a player.
+     *
+     * @param playerName the name of the player
+     * @return the {@link Summary} of the games of the player
+     */
+    public synchronized Summary aggregate(String playerName) {
+        var id = playerIds.get(playerName);
+        return id == null ? EMPTY : aggregate(id, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Aggregates the games finished in a time interval.
+     *
+     * @param from the first timestamp of the interval, inclusive
+     * @param to the last timestamp of the interval, exclusive
+     * @return the {@link Summary} of the games of the interval
+     */
+    public Summary aggregate(long from, long to) {
+        return aggregate(-1, from, to);
+    }
+
+    /**
+     * Aggregates the games of every player.
+     *
+     * @return the {@link Summary} of the games of each player, by player name
+     */
+    public synchronized Map<String, Summary> aggregateByPlayer() {
+        int count = players.size();
+        long[] games = new long[count];
+        long[] wins = new long[count];
+        long[] totalMoves = new long[count];
+        int[] best = new int[count];
+        long[] first = new long[count];
+        long[] last = new long[count];
+        Arrays.fill(best, Integer.MAX_VALUE);
+        Arrays.fill(first, Long.MAX_VALUE);
+        Arrays.fill(last, Long.MIN_VALUE);
+        for (var segment : segments) {
+            int segmentRows = segment.getInt(ROW_COUNT_OFFSET);
+            for (int row = 0; row < segmentRows; row++) {
+                int player = segment.getInt((int) (PLAYER_OFFSET + Integer.BYTES * row));
+                int moves = segment.getInt((int) (MOVE_COUNT_OFFSET + Integer.BYTES * row));
+                long timestamp = segment.getLong((int) (TIMESTAMP_OFFSET + (long) Long.BYTES * row));
+                games[player]++;
+                totalMoves[player] += moves;
+                first[player] = Math.min(first[player], timestamp);
+                last[player] = Math.max(last[player], timestamp);
+                if (isSolved(segment, row)) {
+                    wins[player]++;
+                    best[player] = Math.min(best[player], moves);
+                }
+            }
+        }
+        var result = new HashMap<String, Summary>();
+        for (int player = 0; player < count; player++) {
+            if (games[player] > 0) {
+                result.put(players.get(player), new Summary(games[player], wins[player], totalMoves[player],
+                        best[player], first[player], last[player]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Scans the columns of every segment, selecting the rows of a player (any player if
+     * {@code player} is {@code -1}) with a timestamp in the given interval.
+     */
+    private synchronized Summary aggregate(int player, long from, long to) {
+        long games = 0;
+        long wins = 0;
+        long totalMoves = 0;
+        int best = Integer.MAX_VALUE;
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        boolean allTimes = from == Long.MIN_VALUE && to == Long.MAX_VALUE;
+        for (var segment : segments) {
+            int segmentRows = segment.getInt(ROW_COUNT_OFFSET);
+            for (int row = 0; row < segmentRows; row++) {
+                if (player != -1 && segment.getInt((int) (PLAYER_OFFSET + Integer.BYTES * row)) != player) {
+                    continue;
+                }
+                long timestamp = segment.getLong((int) (TIMESTAMP_OFFSET + (long) Long.BYTES * row));
+                if (!allTimes && (timestamp < from || timestamp >= to)) {
+                    continue;
+                }
+                int moves = segment.getInt((int) (MOVE_COUNT_OFFSET + Integer.BYTES * row));
+                games++;
+                totalMoves += moves;
+                first = Math.min(first, timestamp);
+                last = Math.max(last, timestamp);
+                if (isSolved(segment, row)) {
+                    wins++;
+                    best = Math.min(best, moves);
+                }
+            }
+        }
+        return new Summary(games, wins, totalMoves, best, first, last);
+    }
+
+    private static boolean isSolved(ByteBuffer segment, int row) {
+        return (segment.get((int) (SOLVED_OFFSET + row / Byte.SIZE)) & 1 << (row % Byte.SIZE)) != 0;
+    }
+
+    /**
+     * Appends every result of a results log to the history.
+     *
+     * @param path the path of the results log
+     * @return the number of imported games
+     * @throws IOException if the log cannot be read or the history cannot be written
+     */
+    public long importResults(Path path) throws IOException {
+        long[] count = {0};
+        try {
+            GameResultStore.read(path, result -> {
+                appendUnchecked(result);
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count[0];
+    }
+
+    /**
+     * Writes the modified pages of the segments to disk.
+     */
+    public synchronized void force() {
+        for (var segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Stops following the result store, writes the history to disk and closes the player dictionary.
+     *
+     * @throws IOException if the history cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        detach.run();
+        force();
+        playersOut.close();
+    }
+}
@@ -0,0 +1,548 @@
+package boardgame.game;
+
+import boardgame.model.Board;
+import boardgame.model.GameReplay;
+import boardgame.model.MoveRecording;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.tinylog.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Append-only log of finished games in JSON Lines format, one {@link GameSaveData} object per line.
+ * <p>
+ * Results are appended by a background writer thread: every result waiting in the queue is
+ * written in one batch, followed by a single {@code fsync}, so saving a result never blocks the
+ * caller and costs the same regardless of the size of the log. The listeners of the store are
+ * called by the writer thread as well, once their results are in the log, in the order of the log.
+ * The log is read with the streaming API of Jackson, one result at a time. A results file in the old format, a single JSON array
+ * rewritten on every save, is migrated into the log once, when the store is opened.
+ * <p>
+ * A result refers to its board by {@link Board#getId() identifier}. The text of each distinct board is
+ * written once, into the {@link #getBoardDirectory() board directory} next to the log, before the first
+ * result played on it, and is loaded from there when the game is replayed.
+ */
+public final class GameResultStore implements AutoCloseable {
+
+    /**
+     * The default path of the results log.
+     */
+    public static final Path DEFAULT_PATH = Path.of("game_results.jsonl");
+
+    /**
+     * The path of the results file in the old JSON array format.
+     */
+    public static final Path LEGACY_PATH = Path.of("game_save.json");
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final String PLAYER_NAME = "playerName";
+    private static final String MOVE_COUNT = "moveCount";
+    private static final String SOLVED = "solved";
+    private static final String TIMESTAMP = "timestamp";
+    private static final String MOVES = "moves";
+    private static final String BOARD = "board";
+
+    private static GameResultStore defaultStore;
+
+    private record Pending(GameSaveData result, Board board, Subscription subscription,
+                           CompletableFuture<Void> written) {
+    }
+
+    private static final Pending CLOSE = new Pending(null, null, null, null);
+
+    /**
+     * A listener registered by {@link #readAndListen}, which holds back the results written
+     * after its position in the log until the results before it have been read.
+     */
+    private static final class Subscription implements Consumer<GameSaveData> {
+
+        private final Consumer<GameSaveData> consumer;
+        private final List<GameSaveData> held = new ArrayList<>();
+        private boolean caughtUp;
+        private long position;
+
+        private Subscription(Consumer<GameSaveData> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public synchronized void accept(GameSaveData result) {
+            if (caughtUp) {
+                consumer.accept(result);
+            } else {
+                held.add(result);
+            }
+        }
+
+        private synchronized void catchUp() {
+            held.forEach(consumer);
+            held.clear();
+            caughtUp = true;
+        }
+    }
+
+    private final Path path;
+    private final Path boardDirectory;
+    private final Set<String> savedBoards = new HashSet<>();
+    private final FileChannel channel;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private final List<Consumer<GameSaveData>> listeners = new CopyOnWriteArrayList<>();
+    private final Object appendLock = new Object();
+    private boolean closed;
+
+    private GameResultStore(Path path) throws IOException {
+        this.path = path;
+        this.boardDirectory = path.resolveSibling(path.getFileName() + ".boards");
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.writer = Thread.ofPlatform().name("game-result-writer").daemon().start(this::writeLoop);
+    }
+
+    /**
+     * Opens a results log, migrating the results of a file in the old format first
+     * if the log does not exist yet.
+     *
+     * @param path the path of the results log
+     * @param legacyPath the path of the results file in the old JSON array format
+     * @return the opened {@code GameResultStore}
+     * @throws IOException if the files cannot be read or written
+     */
+    public static GameResultStore open(Path path, Path legacyPath) throws IOException {
+        if (!Files.exists(path) && Files.exists(legacyPath)) {
+            migrate(legacyPath, path);
+        }
+        return new GameResultStore(path);
+    }
+
+    /**
+     * Returns the store of the default results log, opening it on first use.
+     *
+     * @return the {@code GameResultStore} of {@link #DEFAULT_PATH}
+     * @throws UncheckedIOException if the log cannot be opened
+     */
+    public static synchronized GameResultStore getDefault() {
+        if (defaultStore == null) {
+            try {
+                defaultStore = open(DEFAULT_PATH, LEGACY_PATH);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return defaultStore;
+    }
+
+    /**
+     * Closes the store of the default results log if it has been opened.
+     */
+    public static synchronized void closeDefault() {
+        if (defaultStore != null) {
+            defaultStore.close();
+            defaultStore = null;
+        }
+    }
+
+    /**
+     * Copies the results of a file in the old JSON array format into a new results log.
+     * The log is written into a temporary file first, so a failed migration leaves no partial log.
+     *
+     * @param legacyPath the path of the old results file
+     * @param path the path of the results log
+     * @return the number of migrated results
+     * @throws IOException if the files cannot be read or written
+     */
+    static int migrate(Path legacyPath, Path path) throws IOException {
+        var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        var buffer = new ByteArrayOutputStream();
+        int[] count = {0};
+        try (var out = Files.newOutputStream(temporary)) {
+            read(legacyPath, result -> {
+                try {
+                    buffer.reset();
+                    write(result, buffer);
+                    buffer.writeTo(out);
+                    count[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        Logger.info("Migrated {} results from {} to {}", count[0], legacyPath, path);
+        return count[0];
+    }
+
+    /**
+     * Appends a result to the log without waiting for it to be written.
+     *
+     * @param result the result of a finished game
+     * @return a future completed when the result is written and synced to disk
+     * @throws IllegalStateException if the store is closed
+     */
+    public CompletableFuture<Void> append(GameSaveData result) {
+        var written = new CompletableFuture<Void>();
+        enqueue(new Pending(result, null, null, written));
+        return written;
+    }
+
+    /**
+     * Appends a result played on a board to the log without waiting for it to be written.
+     * The board is saved into the board directory first, unless it is already there.
+     *
+     * @param result the result of a finished game
+     * @param board the board the game was played on
+     * @return a future completed when the board and the result are written and synced to disk
+     * @throws IllegalArgumentException if the result does not refer to {@code board}
+     * @throws IllegalStateException if the store is closed
+     */
+    public CompletableFuture<Void> append(GameSaveData result, Board board) {
+        if (!board.getId().equals(result.board)) {
+            throw new IllegalArgumentException("The result was not played on board " + board.getId());
+        }
+        var written = new CompletableFuture<Void>();
+        enqueue(new Pending(result, board, null, written));
+        return written;
+    }
+
+    /**
+     * Returns a future completed when every result appended so far is written and synced to disk.
+     *
+     * @return the future of the results waiting to be written
+     * @throws IllegalStateException if the store is closed
+     */
+    public CompletableFuture<Void> flush() {
+        var written = new CompletableFuture<Void>();
+        enqueue(new Pending(null, null, null, written));
+        return written;
+    }
+
+    private void enqueue(Pending pending) {
+        synchronized (appendLock) {
+            if (closed) {
+                throw new IllegalStateException("The result store is closed!");
+            }
+            queue.add(pending);
+        }
+    }
+
+    /**
+     * Registers a listener called with every result appended afterwards. The listener is called
+     * on the writer thread once the result is written, before the future of the result is completed.
+     *
+     * @param listener the consumer of the appended results
+     */
+    public void addListener(Consumer<GameSaveData> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener registered by {@link #addListener} or {@link #readAndListen}. The listener
+     * may still be called by the writer thread while it is being removed.
+     *
+     * @param listener the consumer of the appended results
+     */
+    public void removeListener(Consumer<GameSaveData> listener) {
+        listeners.removeIf(registered -> registered == listener
+                || registered instanceof Subscription subscription && subscription.consumer == listener);
+    }
+
+    /**
+     * Reads every result of the log and registers a listener for every result appended afterwards.
+     * The listener is registered by the writer thread, which records the length of the log at that
+     * point, and only the results up to that length are read, so each result is passed to the
+     * consumer exactly once, in the order of the log. Appends do not wait while the log is read:
+     * the results appended meanwhile are held back and passed to the consumer afterwards.
+     *
+     * @param consumer the consumer of the results, called in the order of the log, first on the
+     *                 calling thread and then on the writer thread
+     * @throws IOException if the log cannot be read or the results waiting to be written cannot be written
+     * @throws InterruptedException if the thread is interrupted while waiting for the writer thread
+     * @throws IllegalStateException if the store is closed
+     */
+    public void readAndListen(Consumer<GameSaveData> consumer) throws IOException, InterruptedException {
+        var subscription = new Subscription(consumer);
+        var registered = new CompletableFuture<Void>();
+        enqueue(new Pending(null, null, subscription, registered));
+        try {
+            registered.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        }
+        try {
+            read(path, subscription.position, consumer);
+        } catch (IOException | RuntimeException e) {
+            listeners.remove(subscription);
+            throw e;
+        }
+        subscription.catchUp();
+    }
+
+    /**
+     * Reads every result of the log.
+     *
+     * @param consumer the consumer of the results, called in the order of the log
+     * @throws IOException if the log cannot be read
+     */
+    public void read(Consumer<GameSaveData> consumer) throws IOException {
+        read(path, consumer);
+    }
+
+    /**
+     * Returns every result of the log.
+     *
+     * @return the results in the order of the log
+     * @throws IOException if the log cannot be read
+     */
+    public List<GameSaveData> readAll() throws IOException {
+        var results = new ArrayList<GameSaveData>();
+        read(results::add);
+        return results;
+    }
+
+    /**
+     * Returns the path of the log.
+     *
+     * @return the path of the results log
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the directory the boards of the results are saved into.
+     *
+     * @return the path of the board directory
+     */
+    public Path getBoardDirectory() {
+        return boardDirectory;
+    }
+
+    /**
+     * Loads the board a result was played on. Results saved without a board were played on the standard board.
+     *
+     * @param result the result of a finished game
+     * @return the {@link Board} of the result, or {@link Board#STANDARD} if it has none
+     * @throws IOException if the board cannot be read
+     * @throws IllegalArgumentException if the saved board is invalid
+     */
+    public Board loadBoard(GameSaveData result) throws IOException {
+        return result.board == null ? Board.STANDARD : Board.load(boardDirectory.resolve(result.board + ".txt"));
+    }
+
+    /**
+     * Returns the replay of the recorded moves of a result on the board it was played on.
+     *
+     * @param result the result of a finished game
+     * @return the {@link GameReplay} of the game
+     * @throws IOException if the board cannot be read
+     * @throws IllegalStateException if the result has no recorded moves
+     * @throws IllegalArgumentException if the saved board or moves are invalid
+     */
+    public GameReplay replay(GameSaveData result) throws IOException {
+        if (result.moves == null) {
+            throw new IllegalStateException("No moves recorded for the game!");
+        }
+        return new GameReplay(MoveRecording.decode(loadBoard(result), result.moves));
+    }
+
+    /**
+     * Streams the results of a file, either a results log or a file in the old JSON array format.
+     *
+     * @param path the path of the file
+     * @param consumer the consumer of the results, called in the order of the file
+     * @throws IOException if the file cannot be read or is not valid
+     */
+    public static void read(Path path, Consumer<GameSaveData> consumer) throws IOException {
+        read(path, Long.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Streams the results of a file starting before a byte offset.
+     */
+    private static void read(Path path, long limit, Consumer<GameSaveData> consumer) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (var parser = JSON.createParser(path.toFile())) {
+            var token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token == JsonToken.START_OBJECT) {
+                if (parser.currentTokenLocation().getByteOffset() >= limit) {
+                    return;
+                }
+                consumer.accept(readResult(parser));
+                token = parser.nextToken();
+            }
+            if (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                throw new IOException("Unexpected " + token + " in " + path + " at " + parser.currentLocation());
+            }
+        }
+    }
+
+    private static GameSaveData readResult(JsonParser parser) throws IOException {
+        var result = new GameSaveData();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            var value = parser.nextToken();
+            switch (field) {
+                case PLAYER_NAME -> result.playerName = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                case MOVE_COUNT -> result.moveCount = parser.getIntValue();
+                case SOLVED -> result.solved = parser.getBooleanValue();
+                case TIMESTAMP -> result.timestamp = parser.getLongValue();
+                case MOVES -> result.moves = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                case BOARD -> result.board = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                default -> parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    private static void write(GameSaveData result, ByteArrayOutputStream out) throws IOException {
+        try (var generator = JSON.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField(PLAYER_NAME, result.playerName);
+            generator.writeNumberField(MOVE_COUNT, result.moveCount);
+            generator.writeBooleanField(SOLVED, result.solved);
+            generator.writeNumberField(TIMESTAMP, result.timestamp);
+            if (result.moves != null) {
+                generator.writeStringField(MOVES, result.moves);
+            }
+            if (result.board != null) {
+                generator.writeStringField(BOARD, result.board);
+            }
+            generator.writeEndObject();
+        }
+        out.write('\n');
+    }
+
+    private void writeLoop() {
+        var batch = new ArrayList<Pending>();
+        var buffer = new ByteArrayOutputStream();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch);
+            buffer.reset();
+            try {
+                long start = channel.size();
+                for (var pending : batch) {
+                    if (pending == CLOSE) {
+                        running = false;
+                    } else if (pending.result() != null) {
+                        if (pending.board() != null) {
+                            saveBoard(pending.board());
+                        }
+                        write(pending.result(), buffer);
+                    } else if (pending.subscription() != null) {
+                        pending.subscription().position = start + buffer.size();
+                    }
+                }
+                var bytes = ByteBuffer.wrap(buffer.toByteArray());
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+                for (var pending : batch) {
+                    if (pending == CLOSE) {
+                        continue;
+                    }
+                    if (pending.result() != null) {
+                        notifyListeners(pending.result());
+                    } else if (pending.subscription() != null) {
+                        listeners.add(pending.subscription());
+                    }
+                    pending.written().complete(null);
+                }
+            } catch (IOException e) {
+                Logger.error("Error saving game results: {}", e.getMessage());
+                batch.stream().filter(pending -> pending != CLOSE).forEach(pending -> pending.written().completeExceptionally(e));
+            }
+            batch.clear();
+        }
+        var closedException = new IllegalStateException("The result store is closed!");
+        queue.drainTo(batch);
+        batch.stream().filter(pending -> pending != CLOSE).forEach(pending -> pending.written().completeExceptionally(closedException));
+    }
+
+    /**
+     * Writes a board into the board directory unless it is already there. The board is written
+     * into a temporary file first, so a result never refers to a partially written board.
+     */
+    private void saveBoard(Board board) throws IOException {
+        String id = board.getId();
+        if (savedBoards.contains(id)) {
+            return;
+        }
+        var target = boardDirectory.resolve(id + ".txt");
+        if (!Files.exists(target)) {
+            Files.createDirectories(boardDirectory);
+            var temporary = boardDirectory.resolve(id + ".tmp");
+            board.save(temporary);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        savedBoards.add(id);
+    }
+
+    private void notifyListeners(GameSaveData result) {
+        for (var listener : listeners) {
+            try {
+                listener.accept(result);
+            } catch (RuntimeException e) {
+                Logger.error("Error in game result listener: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes the results still waiting in the queue and closes the log.
+     */
+    @Override
+    public void close() {
+        synchronized (appendLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(CLOSE);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            Logger.error("Error closing game results: {}", e.getMessage());
+        }
+    }
+}
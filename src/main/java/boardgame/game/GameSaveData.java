@@ -4,13 +4,30 @@ public class GameSaveData {
     public String playerName;
     public int moveCount;
     public boolean solved;
+    public long timestamp;
+    public String moves;
+    public String board;
 
     public GameSaveData() {
     }
 
-    public GameSaveData(String playerName, int moveCount, boolean solved) {
+    /**
+     * Creates the result of a finished game.
+     *
+     * @param playerName the name of the player
+     * @param moveCount the number of moves made
+     * @param solved whether the puzzle was solved
+     * @param timestamp the time the game finished, in milliseconds since the epoch
+     * @param moves the encoded {@link boardgame.model.MoveRecording} of the game, or {@code null}
+     * @param board the {@link boardgame.model.Board#getId() identifier} of the board, or {@code null}
+     *              for the standard board
+     */
+    public GameSaveData(String playerName, int moveCount, boolean solved, long timestamp, String moves, String board) {
         this.playerName = playerName;
         this.moveCount = moveCount;
         this.solved = solved;
+        this.timestamp = timestamp;
+        this.moves = moves;
+        this.board = board;
     }
 }
@@ -1,5 +1,6 @@
 package boardgame.game;
 
+import boardgame.model.Board;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -25,6 +26,7 @@ public class HomeScreenController {
         gameController.playerName = playerName.getText();
 
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
+        gameController.setBoard(stage.getUserData() instanceof Board board ? board : Board.STANDARD);
         stage.setScene(new Scene(root));
         stage.show();
     }
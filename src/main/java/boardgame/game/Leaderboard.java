@@ -0,0 +1,259 @@
+package boardgame.game;
+
+import boardgame.model.Board;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Statistics of saved games, maintained incrementally as results are added.
+ * <p>
+ * Move counts are only comparable on the same board, so the statistics are kept separately for every
+ * board, keyed by its {@link Board#getId() identifier}; results saved without a board were played on
+ * {@link Board#STANDARD}. The statistics of every player of a board are kept in a hash map, the
+ * players with a solved game in a sorted set ordered by their best solution, and the fastest solves
+ * in a sorted set bounded to {@link #MAX_TOP_SOLVES} entries. Adding a result updates these indexes in logarithmic time,
+ * and queries only read the first entries of the sets, so neither depends on the number of
+ * stored games.
+ */
+public final class Leaderboard {
+
+    /**
+     * The number of fastest solves kept by the leaderboard.
+     */
+    public static final int MAX_TOP_SOLVES = 100;
+
+    /**
+     * The statistics of a player.
+     *
+     * @param playerName the name of the player
+     * @param games the number of finished games
+     * @param wins the number of solved games
+     * @param bestMoveCount the fewest moves of a solved game, or {@link Integer#MAX_VALUE} if there is none
+     */
+    public record PlayerStats(String playerName, int games, int wins, int bestMoveCount) {
+
+        /**
+         * Returns the ratio of solved games.
+         *
+         * @return the win rate of the player
+         */
+        public double winRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        /**
+         * Checks whether the player has solved a game.
+         *
+         * @return {@code true} if the player has a best move count, {@code false} otherwise
+         */
+        public boolean hasSolved() {
+            return wins > 0;
+        }
+    }
+
+    /**
+     * A solved game.
+     *
+     * @param playerName the name of the player
+     * @param moveCount the number of moves of the solution
+     * @param sequence the number of games saved before this one
+     */
+    public record Solve(String playerName, int moveCount, long sequence) {
+    }
+
+    private static final Comparator<PlayerStats> BY_BEST_MOVE_COUNT = Comparator
+            .comparingInt(PlayerStats::bestMoveCount)
+            .thenComparing(Comparator.comparingInt(PlayerStats::wins).reversed())
+            .thenComparing(PlayerStats::playerName);
+
+    private static final Comparator<Solve> BY_MOVE_COUNT = Comparator
+            .comparingInt(Solve::moveCount)
+            .thenComparingLong(Solve::sequence);
+
+    private static final String STANDARD_ID = Board.STANDARD.getId();
+
+    private static Leaderboard defaultLeaderboard;
+
+    /**
+     * The statistics of the games played on one board.
+     */
+    private static final class Ranking {
+
+        private final Map<String, PlayerStats> players = new HashMap<>();
+        private final TreeSet<PlayerStats> ranking = new TreeSet<>(BY_BEST_MOVE_COUNT);
+        private final TreeSet<Solve> topSolves = new TreeSet<>(BY_MOVE_COUNT);
+        private long games;
+        private long wins;
+    }
+
+    private static final Ranking EMPTY = new Ranking();
+
+    private final Map<String, Ranking> boards = new HashMap<>();
+
+    /**
+     * Returns the leaderboard of the default result store, loading it on first use and
+     * keeping it updated with every result appended to the store afterwards.
+     *
+     * @return the {@code Leaderboard} of {@link GameResultStore#getDefault()}
+     * @throws UncheckedIOException if the results cannot be read
+     */
+    public static synchronized Leaderboard getDefault() {
+        if (defaultLeaderboard == null) {
+            var store = GameResultStore.getDefault();
+            var leaderboard = new Leaderboard();
+            try {
+                store.readAndListen(leaderboard::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            defaultLeaderboard = leaderboard;
+        }
+        return defaultLeaderboard;
+    }
+
+    /**
+     * Updates the statistics with a finished game.
+     *
+     * @param result the result of the game
+     */
+    public synchronized void add(GameSaveData result) {
+        var board = boards.computeIfAbsent(boardId(result), id -> new Ranking());
+        String name = result.playerName == null ? "" : result.playerName;
+        long sequence = board.games++;
+        var previous = board.players.get(name);
+        PlayerStats updated;
+        if (previous == null) {
+            updated = new PlayerStats(name, 1, result.solved ? 1 : 0,
+                    result.solved ? result.moveCount : Integer.MAX_VALUE);
+        } else {
+            updated = new PlayerStats(name, previous.games() + 1, previous.wins() + (result.solved ? 1 : 0),
+                    result.solved ? Math.min(previous.bestMoveCount(), result.moveCount) : previous.bestMoveCount());
+            if (previous.hasSolved()) {
+                board.ranking.remove(previous);
+            }
+        }
+        board.players.put(name, updated);
+        if (updated.hasSolved()) {
+            board.ranking.add(updated);
+        }
+        if (result.solved) {
+            board.wins++;
+            var solve = new Solve(name, result.moveCount, sequence);
+            if (board.topSolves.size() < MAX_TOP_SOLVES) {
+                board.topSolves.add(solve);
+            } else if (BY_MOVE_COUNT.compare(solve, board.topSolves.last()) < 0) {
+                board.topSolves.pollLast();
+                board.topSolves.add(solve);
+            }
+        }
+    }
+
+    /**
+     * Returns the identifiers of the boards with finished games.
+     *
+     * @return the identifiers of the boards in no particular order
+     */
+    public synchronized Set<String> getBoards() {
+        return Set.copyOf(boards.keySet());
+    }
+
+    /**
+     * Returns the statistics of a player on a board.
+     *
+     * @param boardId the identifier of the board
+     * @param playerName the name of the player
+     * @return the {@link PlayerStats} of the player, or an empty {@code Optional} if the player has no games on the board
+     */
+    public synchronized Optional<PlayerStats> getPlayerStats(String boardId, String playerName) {
+        return Optional.ofNullable(ranking(boardId).players.get(playerName));
+    }
+
+    /**
+     * Returns the players with the best solutions of a board, ordered by their fewest moves and then by their wins.
+     *
+     * @param boardId the identifier of the board
+     * @param limit the maximum number of players
+     * @return the statistics of the best players
+     */
+    public synchronized List<PlayerStats> getTopPlayers(String boardId, int limit) {
+        var ranking = ranking(boardId).ranking;
+        var result = new ArrayList<PlayerStats>(Math.min(limit, ranking.size()));
+        for (var stats : ranking) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(stats);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the solved games of a board with the fewest moves, earlier games first on ties.
+     *
+     * @param boardId the identifier of the board
+     * @param limit the maximum number of solves, at most {@link #MAX_TOP_SOLVES}
+     * @return the fastest solves
+     */
+    public synchronized List<Solve> getTopSolves(String boardId, int limit) {
+        var topSolves = ranking(boardId).topSolves;
+        var result = new ArrayList<Solve>(Math.min(limit, topSolves.size()));
+        for (var solve : topSolves) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(solve);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of finished games on a board.
+     *
+     * @param boardId the identifier of the board
+     * @return the number of games added
+     */
+    public synchronized long getGames(String boardId) {
+        return ranking(boardId).games;
+    }
+
+    /**
+     * Returns the number of players of a board.
+     *
+     * @param boardId the identifier of the board
+     * @return the number of distinct player names
+     */
+    public synchronized int getPlayers(String boardId) {
+        return ranking(boardId).players.size();
+    }
+
+    /**
+     * Returns the ratio of solved games on a board over all players.
+     *
+     * @param boardId the identifier of the board
+     * @return the overall win rate
+     */
+    public synchronized double getWinRate(String boardId) {
+        var ranking = ranking(boardId);
+        return ranking.games == 0 ? 0 : (double) ranking.wins / ranking.games;
+    }
+
+    private static String boardId(GameSaveData result) {
+        return result.board == null ? STANDARD_ID : result.board;
+    }
+
+    private Ranking ranking(String boardId) {
+        return boards.getOrDefault(boardId, EMPTY);
+    }
+}
@@ -0,0 +1,56 @@
+package boardgame.game;
+
+import boardgame.model.Board;
+import javafx.application.Platform;
+import javafx.fxml.FXML;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import org.tinylog.Logger;
+
+public class LeaderboardController {
+
+    private static final int LIMIT = 20;
+
+    @FXML
+    private Label summaryLabel;
+
+    @FXML
+    private ListView<String> playersList;
+
+    @FXML
+    private ListView<String> solvesList;
+
+    /**
+     * Shows the rankings of a board. The leaderboard is loaded in the background on first use,
+     * and the view is filled once it is ready.
+     *
+     * @param board the {@link Board} whose rankings are shown
+     */
+    public void setBoard(Board board) {
+        summaryLabel.setText("Loading...");
+        String boardId = board.getId();
+        Thread.ofVirtual().start(() -> {
+            try {
+                var leaderboard = Leaderboard.getDefault();
+                Platform.runLater(() -> show(leaderboard, boardId));
+            } catch (RuntimeException e) {
+                Logger.error("Error loading leaderboard: {}", e.getMessage());
+                Platform.runLater(() -> summaryLabel.setText("The leaderboard cannot be loaded"));
+            }
+        });
+    }
+
+    private void show(Leaderboard leaderboard, String boardId) {
+        summaryLabel.setText(String.format("%d games by %d players, %.1f%% solved",
+                leaderboard.getGames(boardId), leaderboard.getPlayers(boardId), 100 * leaderboard.getWinRate(boardId)));
+        int rank = 1;
+        for (var stats : leaderboard.getTopPlayers(boardId, LIMIT)) {
+            playersList.getItems().add(String.format("%d. %s - best %d moves, %d/%d solved",
+                    rank++, stats.playerName(), stats.bestMoveCount(), stats.wins(), stats.games()));
+        }
+        rank = 1;
+        for (var solve : leaderboard.getTopSolves(boardId, LIMIT)) {
+            solvesList.getItems().add(String.format("%d. %s - %d moves", rank++, solve.playerName(), solve.moveCount()));
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package boardgame.model;
+
+import common.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Represents a game board of configurable size with its step table and target cell.
+ * <p>
+ * Cells are addressed by a cell index ({@code row * columns + column}) and the step table
+ * is stored in a flat array indexed by it. Boards can be created from a table, loaded from
+ * a text file or generated randomly.
+ * <p>
+ * The text format starts with the number of rows and columns, followed by one line of steps
+ * for each row. A {@code *} marks the target cell with a step value of {@code -1}, as on the
+ * standard board. Alternatively, a {@code target <row> <column>} line may follow the dimensions.
+ * If no target is given, the bottom-right cell is the target. Empty lines and lines starting
+ * with {@code #} are ignored.
+ */
+public final class Board {
+
+    /**
+     * The maximum number of cells of a board, limited by the width of the cell fields of {@link PackedState}.
+     */
+    public static final int MAX_CELLS = 1 << PackedState.CELL_BITS;
+
+    /**
+     * The standard 8x8 board defined by {@link BoardGameState#table}.
+     */
+    public static final Board STANDARD = of(BoardGameState.table, BoardGameState.FINAL_CELL);
+
+    /**
+     * Boards with at most this many cells cache the {@link TwoPhaseMove} objects returned by {@link #moveOf}.
+     */
+    public static final int MAX_CACHED_MOVE_CELLS = 1 << 16;
+
+    private static final int DIRECTIONS = 4;
+    private static final String TARGET_MARK = "*";
+    private static final String TARGET_DIRECTIVE = "target";
+
+    private final int rows;
+    private final int columns;
+    private final int[] steps;
+    private final int targetCell;
+    private final MoveGenerator moveGenerator;
+    private volatile DeadStateDetector deadStateDetector;
+    private TwoPhaseMove<Position>[] moves;
+
+    private Board(int rows, int columns, int[] steps, int targetCell) {
+        if (rows <= 0 || columns <= 0 || (long) rows * columns > MAX_CELLS) {
+            throw new IllegalArgumentException("Invalid board size: " + rows + "x" + columns);
+        }
+        if (targetCell < 0 || targetCell >= rows * columns) {
+            throw new IllegalArgumentException("Invalid target cell: " + targetCell);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.steps = steps;
+        this.targetCell = targetCell;
+        this.moveGenerator = new MoveGenerator(this);
+    }
+
+    /**
+     * Creates a board from a rectangular table of steps.
+     *
+     * @param table the table defining the movement steps for each cell
+     * @param target the target {@link Position} of the board
+     * @return the new {@code Board}
+     * @throws IllegalArgumentException if the table is not rectangular or the target is outside of it
+     */
+    public static Board of(int[][] table, Position target) {
+        int rows = table.length;
+        int columns = rows == 0 ? 0 : table[0].length;
+        int[] steps = new int[rows * columns];
+        for (int row = 0; row < rows; row++) {
+            if (table[row].length != columns) {
+                throw new IllegalArgumentException("The table is not rectangular!");
+            }
+            System.arraycopy(table[row], 0, steps, row * columns, columns);
+        }
+        if (target.row() < 0 || target.row() >= rows || target.column() < 0 || target.column() >= columns) {
+            throw new IllegalArgumentException("Invalid target position: " + target);
+        }
+        return new Board(rows, columns, steps, target.row() * columns + target.column());
+    }
+
+    /**
+     * Generates a random board. Every cell gets a step value between {@code 0} and {@code maxStep},
+     * except the bottom-right target cell which gets {@code -1} like on the standard board.
+     *
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @param maxStep the largest step value of a cell
+     * @param seed the seed of the random generator
+     * @return the generated {@code Board}
+     */
+    public static Board generate(int rows, int columns, int maxStep, long seed) {
+        if (rows <= 0 || columns <= 0 || (long) rows * columns > MAX_CELLS) {
+            throw new IllegalArgumentException("Invalid board size: " + rows + "x" + columns);
+        }
+        var random = new SplittableRandom(seed);
+        int[] steps = new int[rows * columns];
+        for (int cell = 0; cell < steps.length; cell++) {
+            steps[cell] = random.nextInt(maxStep + 1);
+        }
+        int targetCell = steps.length - 1;
+        steps[targetCell] = -1;
+        return new Board(rows, columns, steps, targetCell);
+    }
+
+    /**
+     * Loads a board from a text file.
+     *
+     * @param path the path of the file
+     * @return the loaded {@code Board}
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid board
+     */
+    public static Board load(Path path) throws IOException {
+        try (var reader = Files.newBufferedReader(path)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Parses a board from its text representation.
+     *
+     * @param text the text representation of the board
+     * @return the parsed {@code Board}
+     * @throws IllegalArgumentException if the text is not a valid board
+     */
+    public static Board parse(String text) {
+        try {
+            return parse(new StringReader(text));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Parses a board from a reader providing its text representation.
+     *
+     * @param reader the reader of the text representation
+     * @return the parsed {@code Board}
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if the text is not a valid board
+     */
+    public static Board parse(Reader reader) throws IOException {
+        var lines = new BufferedReader(reader);
+        String[] size = nextLine(lines).split("\\s+");
+        if (size.length != 2) {
+            throw new IllegalArgumentException("The first line must contain the number of rows and columns!");
+        }
+        int rows = Integer.parseInt(size[0]);
+        int columns = Integer.parseInt(size[1]);
+        if (rows <= 0 || columns <= 0 || (long) rows * columns > MAX_CELLS) {
+            throw new IllegalArgumentException("Invalid board size: " + rows + "x" + columns);
+        }
+        int targetCell = -1;
+        int[] steps = new int[rows * columns];
+        String line = nextLine(lines);
+        if (line.startsWith(TARGET_DIRECTIVE)) {
+            String[] target = line.split("\\s+");
+            if (target.length != 3) {
+                throw new IllegalArgumentException("Invalid target line: " + line);
+            }
+            int targetRow = Integer.parseInt(target[1]);
+            int targetColumn = Integer.parseInt(target[2]);
+            if (targetRow < 0 || targetRow >= rows || targetColumn < 0 || targetColumn >= columns) {
+                throw new IllegalArgumentException("Invalid target position: " + line);
+            }
+            targetCell = targetRow * columns + targetColumn;
+            line = nextLine(lines);
+        }
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                line = nextLine(lines);
+            }
+            String[] values = line.split("\\s+");
+            if (values.length != columns) {
+                throw new IllegalArgumentException("Row " + row + " must contain " + columns + " values!");
+            }
+            for (int column = 0; column < columns; column++) {
+                int cell = row * columns + column;
+                if (values[column].equals(TARGET_MARK)) {
+                    targetCell = cell;
+                    steps[cell] = -1;
+                } else {
+                    steps[cell] = Integer.parseInt(values[column]);
+                }
+            }
+        }
+        return new Board(rows, columns, steps, targetCell < 0 ? steps.length - 1 : targetCell);
+    }
+
+    private static String nextLine(BufferedReader lines) throws IOException {
+        String line;
+        do {
+            line = lines.readLine();
+            if (line == null) {
+                throw new IllegalArgumentException("Unexpected end of board definition!");
+            }
+            line = line.strip();
+        } while (line.isEmpty() || line.startsWith("#"));
+        return line;
+    }
+
+    /**
+     * Returns the text representation of the board, which can be read back by {@link #parse(String)}.
+     *
+     * @return the text representation of the board
+     */
+    public String format() {
+        var sb = new StringBuilder();
+        sb.append(rows).append(' ').append(columns).append('\n');
+        boolean markTarget = steps[targetCell] == -1;
+        if (!markTarget) {
+            sb.append(TARGET_DIRECTIVE).append(' ').append(targetCell / columns)
+                    .append(' ').append(targetCell % columns).append('\n');
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int cell = row * columns + column;
+                if (column > 0) {
+                    sb.append(' ');
+                }
+                sb.append(markTarget && cell == targetCell ? TARGET_MARK : String.valueOf(steps[cell]));
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the text representation of the board into a file.
+     *
+     * @param path the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        Files.writeString(path, format());
+    }
+
+    /**
+     * Returns the number of rows of the board.
+     *
+     * @return the number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the board.
+     *
+     * @return the number of columns
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns a hash of the steps and the target cell of the board.
+     *
+     * @return the fingerprint of the board
+     */
+    public int fingerprint() {
+        int hash = 1;
+        for (int step : steps) {
+            hash = 31 * hash + step;
+        }
+        return 31 * hash + targetCell;
+    }
+
+    /**
+     * Returns a short identifier of the board, made of its size and {@link #fingerprint()},
+     * which can be used in file names.
+     *
+     * @return the identifier of the board
+     */
+    public String getId() {
+        return String.format("%dx%d-%08x", rows, columns, fingerprint());
+    }
+
+    /**
+     * Returns the number of cells of the board.
+     *
+     * @return the number of cells
+     */
+    public int getCells() {
+        return steps.length;
+    }
+
+    /**
+     * Returns the number of steps a figure moves from the given cell.
+     *
+     * @param cell the cell index
+     * @return the step value of the cell
+     */
+    public int getSteps(int cell) {
+        return steps[cell];
+    }
+
+    /**
+     * Returns the number of steps a figure moves from the given position.
+     *
+     * @param position the position on the board
+     * @return the step value of the cell at {@code position}
+     */
+    public int getSteps(Position position) {
+        return steps[cellOf(position)];
+    }
+
+    /**
+     * Returns the cell index of the target cell.
+     *
+     * @return the cell index both figures must reach
+     */
+    public int getTargetCell() {
+        return targetCell;
+    }
+
+    /**
+     * Returns the position of the target cell.
+     *
+     * @return the {@link Position} both figures must reach
+     */
+    public Position getTarget() {
+        return positionOf(targetCell);
+    }
+
+    /**
+     * Returns the move generator precomputed for this board.
+     *
+     * @return the {@link MoveGenerator} of the board
+     */
+    public MoveGenerator getMoveGenerator() {
+        return moveGenerator;
+    }
+
+    /**
+     * Returns the dead state detector of this board, building it on first use.
+     *
+     * @return the {@link DeadStateDetector} of the board
+     * @throws IllegalArgumentException if the state space of the board is too large
+     */
+    public DeadStateDetector getDeadStateDetector() {
+        var detector = deadStateDetector;
+        if (detector == null) {
+            synchronized (this) {
+                detector = deadStateDetector;
+                if (detector == null) {
+                    detector = new DeadStateDetector(this);
+                    deadStateDetector = detector;
+                }
+            }
+        }
+        return detector;
+    }
+
+    /**
+     * Checks whether the specified {@link Position} is within the boundaries of the board.
+     *
+     * @param position the {@link Position} to validate
+     * @return {@code true} if the position is on the board, {@code false} otherwise
+     */
+    public boolean isValidPosition(Position position) {
+        return position.row() >= 0 && position.column() >= 0 && position.row() < rows && position.column() < columns;
+    }
+
+    /**
+     * Returns the cell index of the given position.
+     *
+     * @param position the position on the board
+     * @return the cell index of {@code position}
+     */
+    public int cellOf(Position position) {
+        return position.row() * columns + position.column();
+    }
+
+    /**
+     * Returns the position of the given cell index.
+     *
+     * @param cell the cell index
+     * @return the {@link Position} of the cell
+     */
+    public Position positionOf(int cell) {
+        return Position.of(cell / columns, cell % columns);
+    }
+
+    /**
+     * Returns the {@link TwoPhaseMove} of an encoded move made in a packed state.
+     * <p>
+     * A move is determined by the cell it starts from and the direction it is generated by,
+     * so on boards with at most {@link #MAX_CACHED_MOVE_CELLS} cells the move objects are
+     * created once and shared, in a table of four entries per cell.
+     *
+     * @param state the packed state
+     * @param move the encoded move as defined by {@link MoveGenerator}
+     * @return the {@code TwoPhaseMove} from the cell of the moving figure to its target cell
+     */
+    public TwoPhaseMove<Position> moveOf(long state, int move) {
+        int from = MoveGenerator.from(state, move);
+        if (getCells() > MAX_CACHED_MOVE_CELLS) {
+            return new TwoPhaseMove<>(positionOf(from), positionOf(moveGenerator.to(state, move)));
+        }
+        var table = moves;
+        if (table == null) {
+            table = newMoveTable(getCells() * DIRECTIONS);
+            moves = table;
+        }
+        int index = from * DIRECTIONS + MoveGenerator.direction(move);
+        var result = table[index];
+        if (result == null) {
+            result = new TwoPhaseMove<>(positionOf(from), positionOf(moveGenerator.to(state, move)));
+            table[index] = result;
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TwoPhaseMove<Position>[] newMoveTable(int size) {
+        return (TwoPhaseMove<Position>[]) new TwoPhaseMove<?>[size];
+    }
+
+    /**
+     * Encodes the given figures into a packed state.
+     *
+     * @param figure1 the first figure
+     * @param figure2 the second figure
+     * @return the packed state
+     */
+    public long pack(Figure figure1, Figure figure2) {
+        return PackedState.pack(cellOf(figure1.position()), figure1.lastMove().ordinal(),
+                cellOf(figure2.position()), figure2.lastMove().ordinal());
+    }
+
+    /**
+     * Decodes the first figure of a packed state.
+     *
+     * @param state the packed state
+     * @return the first {@link Figure}
+     */
+    public Figure figure1(long state) {
+        return Figure.of(positionOf(PackedState.cell1(state)), PackedState.lastMove1(state));
+    }
+
+    /**
+     * Decodes the second figure of a packed state.
+     *
+     * @param state the packed state
+     * @return the second {@link Figure}
+     */
+    public Figure figure2(long state) {
+        return Figure.of(positionOf(PackedState.cell2(state)), PackedState.lastMove2(state));
+    }
+
+    /**
+     * Checks whether both figures of the packed state stand on the target cell.
+     *
+     * @param state the packed state
+     * @return {@code true} if the state is solved, {@code false} otherwise
+     */
+    public boolean isSolved(long state) {
+        return PackedState.cell1(state) == targetCell && PackedState.cell2(state) == targetCell;
+    }
+
+    /**
+     * Checks whether the game is lost in the packed state because only one figure has reached the
+     * target cell: a figure stands idle on the target cell, while the state is not solved.
+     * No further moves can be made from such a state, although the move generator still
+     * generates them.
+     *
+     * @param state the packed state
+     * @return {@code true} if the game is lost on the target cell, {@code false} otherwise
+     */
+    public boolean isLost(long state) {
+        return !isSolved(state)
+                && (PackedState.cell1(state) == targetCell && PackedState.lastMove1(state) == Direction.NONE.ordinal()
+                || PackedState.cell2(state) == targetCell && PackedState.lastMove2(state) == Direction.NONE.ordinal());
+    }
+
+    /**
+     * Returns the packed start state with both figures in the top-left corner.
+     *
+     * @return the packed start state
+     */
+    public long startState() {
+        return PackedState.pack(0, Direction.NONE.ordinal(), 0, Direction.NONE.ordinal());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Board{%dx%d, target=%s}", rows, columns, getTarget());
+    }
+}
@@ -3,14 +3,17 @@ package boardgame.model;
 import puzzle.TwoPhaseMoveState;
 import puzzle.solver.BreadthFirstSearch;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
 /**
- * Represents the state of the board game, managing two figures on an 8x8 table
- * and their moves according to game rules.
+ * Represents the state of the board game, managing two figures on a {@link Board}
+ * and their moves according to game rules. Unless a board is given, the standard
+ * 8x8 {@link #table} is used.
  * <p>
  * Implements {@link TwoPhaseMoveState} interface with {@link Position} as the move coordinate type.
  */
@@ -30,22 +33,67 @@ public class BoardGameState implements TwoPhaseMoveState<Position> {
             {4, 0, 2, 2, 1, 4, 0, 1},
             {2, 2, 0, 4, 3, 5, 4, -1}};
 
+    /**
+     * The target cell of the standard 8x8 game table.
+     */
+    public static final Position FINAL_CELL = new Position(7,7);
+
+    private final Board board;
     private Figure figure1;
     private Figure figure2;
 
-    public static final Position FINAL_CELL = new Position(7,7);
-
     /**
-     * Initializes a new {@code BoardGameState} with the given figures.
+     * Initializes a new {@code BoardGameState} with the given figures on the standard board.
      *
      * @param figure1 the first figure of the game
      * @param figure2 the second figure of the game
      */
     public BoardGameState(Figure figure1, Figure figure2) {
+        this(Board.STANDARD, figure1, figure2);
+    }
+
+    /**
+     * Initializes a new {@code BoardGameState} with the given figures on the given board.
+     *
+     * @param board the board the game is played on
+     * @param figure1 the first figure of the game
+     * @param figure2 the second figure of the game
+     */
+    public BoardGameState(Board board, Figure figure1, Figure figure2) {
+        this.board = board;
         this.figure1 = figure1;
         this.figure2 = figure2;
     }
 
+    /**
+     * Initializes a new {@code BoardGameState} from a packed state.
+     *
+     * @param board the board the game is played on
+     * @param packedState the state encoded by {@link PackedState}
+     * @return the decoded {@code BoardGameState}
+     */
+    public static BoardGameState fromPacked(Board board, long packedState) {
+        return new BoardGameState(board, board.figure1(packedState), board.figure2(packedState));
+    }
+
+    /**
+     * Returns the state encoded into a single {@code long}.
+     *
+     * @return the packed state as defined by {@link PackedState}
+     */
+    public long toPacked() {
+        return board.pack(figure1, figure2);
+    }
+
+    /**
+     * Returns the board the game is played on.
+     *
+     * @return the {@link Board} of the game
+     */
+    public Board getBoard() {
+        return board;
+    }
+
     /**
      * Returns the first figure of the game.
      *
@@ -65,40 +113,44 @@ public class BoardGameState implements TwoPhaseMoveState<Position> {
     }
 
     /**
-     * Checks whether both figures have reached the bottom-right corner of the board,
+     * Checks whether both figures have reached the target cell of the board,
      * which means the game is solved.
      *
-     * @return {@code true} if both figures are at position (7,7), {@code false} otherwise
+     * @return {@code true} if both figures are at the target position, {@code false} otherwise
      */
     @Override
     public boolean isSolved() {
-        return (figure1.position().equals(FINAL_CELL) && figure2.position().equals(FINAL_CELL));
+        var target = board.getTarget();
+        return (figure1.position().equals(target) && figure2.position().equals(target));
+    }
+
+    /**
+     * Checks whether the game can no longer be solved from this state,
+     * using the {@link DeadStateDetector} of the board.
+     *
+     * @return {@code true} if no sequence of moves solves the game, {@code false} otherwise
+     */
+    public boolean isDead() {
+        return board.getDeadStateDetector().isDead(toPacked());
     }
 
     /**
      * Generates all legal moves for both figures based on their current positions
      * and the movement rules defined by the {@code table}.
+     * <p>
+     * The moves are looked up in the precomputed tables of the {@link MoveGenerator}.
      *
      * @return a {@link Set} of legal {@link TwoPhaseMove} objects for the current state
      */
     @Override
     public Set<TwoPhaseMove<Position>> getLegalMoves() {
         var moves = new HashSet<TwoPhaseMove<Position>>();
-
-        var currentPosition = figure1.position();
-        for (Direction direction : Direction.getMovableDirections()) {
-            var move = new TwoPhaseMove<Position>(currentPosition, Position.getNewPosition(currentPosition, direction, table[currentPosition.row()][currentPosition.column()]));
-            if (isLegalMove(move)) {
-                moves.add(move);
-            }
-        }
-
-        currentPosition = figure2.position();
-        for (Direction direction : Direction.getMovableDirections()) {
-            var move = new TwoPhaseMove<Position>(currentPosition, Position.getNewPosition(currentPosition, direction, table[currentPosition.row()][currentPosition.column()]));
-            if (isLegalMove(move)) {
-                moves.add(move);
-            }
+        var moveGenerator = board.getMoveGenerator();
+        long state = toPacked();
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int count = moveGenerator.generate(state, buffer);
+        for (int i = 0; i < count; i++) {
+            moves.add(board.moveOf(state, buffer[i]));
         }
         return moves;
     }
@@ -136,14 +188,15 @@ public class BoardGameState implements TwoPhaseMoveState<Position> {
     }
 
     /**
-     * Checks whether the specified {@link Position} is within the boundaries of the board.
+     * Checks whether the specified {@link Position} is within the boundaries of the standard board.
      * This method is static and can be used independently of any instance.
      *
      * @param position the {@link Position} to validate
      * @return {@code true} if the position is inside the 8x8 board, {@code false} otherwise
+     * @see Board#isValidPosition(Position)
      */
     public static boolean isValidPosition(Position position){
-        return position.row() >= 0 && position.column() >= 0 && position.column() <= 7 && position.row() <= 7;
+        return Board.STANDARD.isValidPosition(position);
     }
 
     /**
@@ -199,7 +252,7 @@ public class BoardGameState implements TwoPhaseMoveState<Position> {
      * <ul>
      *   <li>The target position must be valid and inside the board.</li>
      *   <li>The move must start from a position where the figure can legally move.</li>
-     *   <li>The move direction and distance must correspond to the allowed directions and the movement steps from the {@code table}.</li>
+     *   <li>The move direction and distance must correspond to the allowed directions and the movement steps of the board.</li>
      * </ul>
      *
      * @param positionTwoPhaseMove the {@link TwoPhaseMove} to validate
@@ -207,11 +260,11 @@ public class BoardGameState implements TwoPhaseMoveState<Position> {
      */
     @Override
     public boolean isLegalMove(TwoPhaseMove<Position> positionTwoPhaseMove) {
-        if (isValidPosition(positionTwoPhaseMove.to()) && isLegalToMoveFrom(positionTwoPhaseMove.from()) && !positionTwoPhaseMove.from().equals(positionTwoPhaseMove.to())){
+        if (board.isValidPosition(positionTwoPhaseMove.to()) && isLegalToMoveFrom(positionTwoPhaseMove.from()) && !positionTwoPhaseMove.from().equals(positionTwoPhaseMove.to())){
             var from = positionTwoPhaseMove.from();
             var legalDirections = getLegalDirections(from);
             for (Direction direction : legalDirections) {
-                if (Position.getNewPosition(from, direction, table[from.row()][from.column()]).equals(positionTwoPhaseMove.to())){
+                if (Position.getNewPosition(from, direction, board.getSteps(from)).equals(positionTwoPhaseMove.to())){
                     return true;
                 }
             }
@@ -232,25 +285,25 @@ public class BoardGameState implements TwoPhaseMoveState<Position> {
     public void makeMove(TwoPhaseMove<Position> positionTwoPhaseMove) {
         if (positionTwoPhaseMove.from().equals(figure1.position()) && positionTwoPhaseMove.from().equals(figure2.position())){
             if (figure1.lastMove().equals(Direction.NONE)){
-                figure1 = new Figure(positionTwoPhaseMove.to(), Position.getDirectionFromPositionChange(positionTwoPhaseMove.from(), positionTwoPhaseMove.to()));
+                figure1 = Figure.of(positionTwoPhaseMove.to(), Position.getDirectionFromPositionChange(positionTwoPhaseMove.from(), positionTwoPhaseMove.to()));
             } else {
-                figure2 = new Figure(positionTwoPhaseMove.to(), Position.getDirectionFromPositionChange(positionTwoPhaseMove.from(), positionTwoPhaseMove.to()));
+                figure2 = Figure.of(positionTwoPhaseMove.to(), Position.getDirectionFromPositionChange(positionTwoPhaseMove.from(), positionTwoPhaseMove.to()));
             }
         } else
         if (positionTwoPhaseMove.from().equals(figure1.position())){
-            figure1 = new Figure(positionTwoPhaseMove.to(), Position.getDirectionFromPositionChange(positionTwoPhaseMove.from(), positionTwoPhaseMove.to()));
+            figure1 = Figure.of(positionTwoPhaseMove.to(), Position.getDirectionFromPositionChange(positionTwoPhaseMove.from(), positionTwoPhaseMove.to()));
         } else {
-            figure2 = new Figure(positionTwoPhaseMove.to(), Position.getDirectionFromPositionChange(positionTwoPhaseMove.from(), positionTwoPhaseMove.to()));
+            figure2 = Figure.of(positionTwoPhaseMove.to(), Position.getDirectionFromPositionChange(positionTwoPhaseMove.from(), positionTwoPhaseMove.to()));
         }
         if (!(figure1.lastMove().equals(Direction.NONE)) && !(figure2.lastMove().equals(Direction.NONE))){
-            figure1 = new Figure(figure1.position(), Direction.NONE);
-            figure2 = new Figure(figure2.position(), Direction.NONE);
+            figure1 = Figure.of(figure1.position(), Direction.NONE);
+            figure2 = Figure.of(figure2.position(), Direction.NONE);
         }
     }
 
     /**
      * Compares this {@code BoardGameState} with another object for equality.
-     * Two states are equal if their figures are equal.
+     * Two states are equal if they are on the same board and their figures are equal.
      *
      * @param o the object to compare with
      * @return {@code true} if both states are equal, {@code false} otherwise
@@ -260,17 +313,18 @@ public class BoardGameState implements TwoPhaseMoveState<Position> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         BoardGameState that = (BoardGameState) o;
-        return Objects.equals(figure1, that.figure1) && Objects.equals(figure2, that.figure2);
+        return board == that.board && Objects.equals(figure1, that.figure1) && Objects.equals(figure2, that.figure2);
     }
 
     /**
      * Returns the hash code for this {@code BoardGameState}.
+     * The packed state is used, so no objects are allocated.
      *
      * @return the hash code value
      */
     @Override
     public int hashCode() {
-        return Objects.hash(figure1, figure2);
+        return Long.hashCode(toPacked());
     }
 
     /**
@@ -288,8 +342,9 @@ public class BoardGameState implements TwoPhaseMoveState<Position> {
         return sb.toString();
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        var board = args.length > 0 ? Board.load(Path.of(args[0])) : Board.STANDARD;
         new BreadthFirstSearch<TwoPhaseMove<Position>>()
-                .solveAndPrintSolution(new BoardGameState(new Figure(), new Figure()));
+                .solveAndPrintSolution(new BoardGameState(board, new Figure(), new Figure()));
     }
 }
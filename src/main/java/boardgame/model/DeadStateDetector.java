@@ -0,0 +1,161 @@
+package boardgame.model;
+
+/**
+ * Detects states from which the target cell can no longer be reached by both figures.
+ * <p>
+ * When created, a backward search from the solved states over the predecessors of each state
+ * marks every state that can still be solved in a bitset with one bit per packed state, indexed
+ * by {@link PackedState#index(long, int)}. The states still to be
+ * expanded are kept in a second bitset of the same size, which is scanned a word at a time until
+ * it is empty, so the search needs two bits per state and no queue. States in which the game is
+ * {@linkplain Board#isLost(long) lost} are never marked, so the search does not pass through them,
+ * unless the detector is created for the plain move graph searched by the solvers.
+ * Afterwards checking a state is a single bit lookup, cheap enough to be done after every move.
+ */
+public final class DeadStateDetector {
+
+    /**
+     * The largest number of states of a board a detector can be built for.
+     */
+    public static final long MAX_STATES = 1L << 31;
+
+    private static final int DIRECTIONS = Direction.values().length;
+
+    private final int cells;
+    private final long[] solvable;
+
+    /**
+     * Marks the solvable states of a board, following the rules of the game.
+     *
+     * @param board the board of the game
+     * @throws IllegalArgumentException if the detector of the board is not {@linkplain #supports(Board) supported}
+     */
+    public DeadStateDetector(Board board) {
+        this(board, true);
+    }
+
+    /**
+     * Marks the solvable states of a board.
+     *
+     * @param board the board of the game
+     * @param lostStatesDead whether the states in which the game is {@linkplain Board#isLost(long) lost}
+     *                       are dead, or the states are solvable along any path of the move graph
+     * @throws IllegalArgumentException if the detector of the board is not {@linkplain #supports(Board) supported}
+     */
+    public DeadStateDetector(Board board, boolean lostStatesDead) {
+        if (!supports(board)) {
+            throw new IllegalArgumentException("The state space of " + board + " is too large!");
+        }
+        cells = board.getCells();
+        int words = words(board);
+        solvable = new long[words];
+        long[] pending = new long[words];
+
+        var moveGenerator = board.getMoveGenerator();
+        long[] predecessors = new long[moveGenerator.maxPredecessors()];
+        int target = board.getTargetCell();
+        for (int lastMove1 = 0; lastMove1 < DIRECTIONS; lastMove1++) {
+            for (int lastMove2 = 0; lastMove2 < DIRECTIONS; lastMove2++) {
+                long index = index(PackedState.pack(target, lastMove1, target, lastMove2));
+                solvable[(int) (index >>> 6)] |= 1L << index;
+                pending[(int) (index >>> 6)] |= 1L << index;
+            }
+        }
+        boolean expanded = true;
+        while (expanded) {
+            expanded = false;
+            for (int word = 0; word < words; word++) {
+                long bits = pending[word];
+                if (bits == 0) {
+                    continue;
+                }
+                pending[word] = 0;
+                expanded = true;
+                while (bits != 0) {
+                    long index = ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int count = moveGenerator.predecessors(state(index), predecessors);
+                    for (int i = 0; i < count; i++) {
+                        if (lostStatesDead && board.isLost(predecessors[i])) {
+                            continue;
+                        }
+                        long predecessor = index(predecessors[i]);
+                        int predecessorWord = (int) (predecessor >>> 6);
+                        if ((solvable[predecessorWord] & 1L << predecessor) == 0) {
+                            solvable[predecessorWord] |= 1L << predecessor;
+                            pending[predecessorWord] |= 1L << predecessor;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int words(Board board) {
+        return (int) ((PackedState.states(board) + 63) >>> 6);
+    }
+
+    /**
+     * Returns the number of bytes of memory building a detector for a board takes.
+     *
+     * @param board the board of the game
+     * @return the size of the two bitsets in bytes
+     */
+    public static long bytesRequired(Board board) {
+        return 2L * words(board) * Long.BYTES;
+    }
+
+    /**
+     * Checks whether a detector can be built for a board.
+     *
+     * @param board the board of the game
+     * @return {@code true} if the board has at most {@link #MAX_STATES} states and its detector
+     *         fits into half of the maximum heap size, {@code false} otherwise
+     */
+    public static boolean supports(Board board) {
+        return PackedState.states(board) <= MAX_STATES
+                && bytesRequired(board) <= Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    /**
+     * Checks whether a packed state can no longer be solved.
+     *
+     * @param state the packed state
+     * @return {@code true} if no sequence of moves solves the state, {@code false} otherwise
+     */
+    public boolean isDead(long state) {
+        return !isSolvable(state);
+    }
+
+    /**
+     * Checks whether a packed state can still be solved.
+     *
+     * @param state the packed state
+     * @return {@code true} if some sequence of moves solves the state, {@code false} otherwise
+     */
+    public boolean isSolvable(long state) {
+        long index = index(state);
+        return (solvable[(int) (index >>> 6)] & 1L << index) != 0;
+    }
+
+    /**
+     * Returns the number of states that can still be solved.
+     *
+     * @return the number of solvable states
+     */
+    public long solvableStates() {
+        long count = 0;
+        for (long word : solvable) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private long index(long state) {
+        return PackedState.index(state, cells);
+    }
+
+    private long state(long index) {
+        return PackedState.fromIndex(index, cells);
+    }
+}
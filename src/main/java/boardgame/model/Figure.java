@@ -7,11 +7,48 @@ package boardgame.model;
  */
 public record Figure(Position position, Direction lastMove) {
 
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final Figure[] CACHE = new Figure[Position.CACHE_SIZE * Position.CACHE_SIZE * DIRECTIONS.length];
+
     /**
      * Default constructor creating a figure at position (0,0) with Direction.NONE as last move.
      */
     public Figure() {
-        this(new Position(0, 0), Direction.NONE);
+        this(Position.of(0, 0), Direction.NONE);
+    }
+
+    /**
+     * Returns a {@code Figure} with the given position and last move. Figures on positions
+     * cached by {@link Position#of(int, int)} are shared instances, created on first use.
+     *
+     * @param position the position of the figure
+     * @param lastMove the direction of the last move of the figure
+     * @return the {@code Figure}
+     */
+    public static Figure of(Position position, Direction lastMove) {
+        int row = position.row();
+        int column = position.column();
+        if (row < 0 || column < 0 || row >= Position.CACHE_SIZE || column >= Position.CACHE_SIZE) {
+            return new Figure(position, lastMove);
+        }
+        int index = (row * Position.CACHE_SIZE + column) * DIRECTIONS.length + lastMove.ordinal();
+        var figure = CACHE[index];
+        if (figure == null) {
+            figure = new Figure(Position.of(row, column), lastMove);
+            CACHE[index] = figure;
+        }
+        return figure;
+    }
+
+    /**
+     * Returns the figure at the given position with the given last move ordinal.
+     *
+     * @param position the position of the figure
+     * @param lastMove the {@link Direction} ordinal of the last move of the figure
+     * @return the {@code Figure}
+     */
+    static Figure of(Position position, int lastMove) {
+        return of(position, DIRECTIONS[lastMove]);
     }
 
 }
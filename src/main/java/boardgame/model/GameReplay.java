@@ -0,0 +1,87 @@
+package boardgame.model;
+
+/**
+ * Rebuilds the states of a recorded game.
+ * <p>
+ * The replay keeps a snapshot of the packed state every {@link #SNAPSHOT_INTERVAL} moves, so
+ * the state at any ply is rebuilt by applying at most {@code SNAPSHOT_INTERVAL - 1} moves to
+ * the nearest earlier snapshot, instead of replaying the game from its start.
+ */
+public final class GameReplay {
+
+    /**
+     * The number of moves between two snapshots.
+     */
+    public static final int SNAPSHOT_INTERVAL = 16;
+
+    private final MoveRecording recording;
+    private final MoveGenerator moveGenerator;
+    private final long[] snapshots;
+
+    /**
+     * Creates a replay of a recorded game.
+     *
+     * @param recording the recorded game
+     */
+    public GameReplay(MoveRecording recording) {
+        this.recording = recording;
+        this.moveGenerator = recording.getBoard().getMoveGenerator();
+        this.snapshots = new long[recording.size() / SNAPSHOT_INTERVAL + 1];
+        long state = recording.getStart();
+        snapshots[0] = state;
+        for (int ply = 0; ply < recording.size(); ply++) {
+            state = moveGenerator.apply(state, recording.move(ply));
+            if ((ply + 1) % SNAPSHOT_INTERVAL == 0) {
+                snapshots[(ply + 1) / SNAPSHOT_INTERVAL] = state;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of moves of the game.
+     *
+     * @return the number of moves
+     */
+    public int length() {
+        return recording.size();
+    }
+
+    /**
+     * Returns the packed state after a number of moves.
+     *
+     * @param ply the number of moves made, from {@code 0} to {@link #length()}
+     * @return the packed state
+     * @throws IndexOutOfBoundsException if {@code ply} is out of range
+     */
+    public long stateAt(int ply) {
+        if (ply < 0 || ply > recording.size()) {
+            throw new IndexOutOfBoundsException(ply);
+        }
+        int snapshot = ply / SNAPSHOT_INTERVAL;
+        long state = snapshots[snapshot];
+        for (int i = snapshot * SNAPSHOT_INTERVAL; i < ply; i++) {
+            state = moveGenerator.apply(state, recording.move(i));
+        }
+        return state;
+    }
+
+    /**
+     * Returns the state after a number of moves.
+     *
+     * @param ply the number of moves made, from {@code 0} to {@link #length()}
+     * @return the {@link BoardGameState}
+     * @throws IndexOutOfBoundsException if {@code ply} is out of range
+     */
+    public BoardGameState boardGameStateAt(int ply) {
+        return BoardGameState.fromPacked(recording.getBoard(), stateAt(ply));
+    }
+
+    /**
+     * Returns whether the recorded game ends in the solved state.
+     *
+     * @return {@code true} if the game is solved, {@code false} otherwise
+     */
+    public boolean isSolved() {
+        return recording.getBoard().isSolved(stateAt(recording.size()));
+    }
+}
@@ -0,0 +1,358 @@
+package boardgame.model;
+
+/**
+ * Generates legal moves of packed states by table lookup.
+ * <p>
+ * The reachable target cell of every (cell, direction) pair of a {@link Board} is computed
+ * once when the generator is created, together with a bitmask of the directions that stay
+ * on the board. Legal moves of a state are then obtained by intersecting this bitmask with
+ * the mask of directions allowed by the other figure's last move, without any further validation.
+ * <p>
+ * A move is encoded into an {@code int} holding the number of the moving figure and the
+ * {@link Direction} ordinal the move is generated by ({@link Direction#UP}, {@link Direction#RIGHT},
+ * {@link Direction#LEFT} or {@link Direction#DOWN}).
+ * <p>
+ * The generator also answers the inverse question, which states lead to a given state in one move,
+ * used by searches running backward from the solved states. The tables needed for this are only
+ * built on first use.
+ */
+public final class MoveGenerator {
+
+    /**
+     * The maximum number of legal moves of a state, which is the size
+     * a buffer passed to {@link #generate(long, int[])} must have.
+     */
+    public static final int MAX_MOVES = 8;
+
+    private static final int DIRECTIONS = 4;
+    private static final int ALL_DIRECTIONS = (1 << DIRECTIONS) - 1;
+    private static final int NONE = Direction.NONE.ordinal();
+
+    /**
+     * Bitmask of the directions allowed for a figure, indexed by the other figure's last move.
+     */
+    private static final int[] ALLOWED_DIRECTIONS = new int[Direction.values().length];
+
+    static {
+        int vertical = 1 << Direction.UP.ordinal() | 1 << Direction.DOWN.ordinal();
+        int horizontal = 1 << Direction.LEFT.ordinal() | 1 << Direction.RIGHT.ordinal();
+        ALLOWED_DIRECTIONS[Direction.UP.ordinal()] = horizontal;
+        ALLOWED_DIRECTIONS[Direction.DOWN.ordinal()] = horizontal;
+        ALLOWED_DIRECTIONS[Direction.LEFT.ordinal()] = vertical;
+        ALLOWED_DIRECTIONS[Direction.RIGHT.ordinal()] = vertical;
+        ALLOWED_DIRECTIONS[NONE] = ALL_DIRECTIONS;
+    }
+
+    private final int columns;
+    private final int[] targets;
+    private final byte[] moveDirections;
+    private final byte[] reachable;
+
+    private volatile ReverseTable reverseTable;
+
+    /**
+     * The cells a figure can arrive from at every (cell, recorded direction) pair, in compressed
+     * sparse row layout: the sources of pair {@code i} are at indices {@code start[i]} (inclusive)
+     * to {@code start[i + 1]} (exclusive) of {@code sources}.
+     *
+     * @param start the first index of the sources of every pair
+     * @param sources the source cells
+     * @param directions the direction ordinal each source move is generated by
+     * @param maxSources the largest number of sources of a pair
+     */
+    private record ReverseTable(int[] start, int[] sources, byte[] directions, int maxSources) {
+    }
+
+    /**
+     * Creates a move generator precomputing the moves of the given board.
+     *
+     * @param board the board defining the movement steps for each cell
+     */
+    MoveGenerator(Board board) {
+        int rows = board.getRows();
+        columns = board.getColumns();
+        int cells = board.getCells();
+        targets = new int[cells * DIRECTIONS];
+        moveDirections = new byte[cells * DIRECTIONS];
+        reachable = new byte[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            int row = cell / columns;
+            int column = cell % columns;
+            int steps = board.getSteps(cell);
+            for (int direction = 0; direction < DIRECTIONS; direction++) {
+                var delta = Direction.values()[direction];
+                int newRow = row + delta.getRow() * steps;
+                int newColumn = column + delta.getColumn() * steps;
+                int index = cell * DIRECTIONS + direction;
+                if (steps != 0 && newRow >= 0 && newRow < rows && newColumn >= 0 && newColumn < columns) {
+                    targets[index] = newRow * columns + newColumn;
+                    moveDirections[index] = (byte) (steps > 0 ? direction : opposite(direction));
+                    reachable[cell] |= (byte) (1 << direction);
+                } else {
+                    targets[index] = -1;
+                    moveDirections[index] = (byte) NONE;
+                }
+            }
+        }
+    }
+
+    private ReverseTable reverseTable() {
+        var table = reverseTable;
+        if (table == null) {
+            synchronized (this) {
+                table = reverseTable;
+                if (table == null) {
+                    table = buildReverseTable();
+                    reverseTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    private ReverseTable buildReverseTable() {
+        int[] start = new int[targets.length + 1];
+        for (int index = 0; index < targets.length; index++) {
+            if (targets[index] >= 0) {
+                start[targets[index] * DIRECTIONS + moveDirections[index] + 1]++;
+            }
+        }
+        int maxSources = 0;
+        for (int i = 0; i < targets.length; i++) {
+            maxSources = Math.max(maxSources, start[i + 1]);
+            start[i + 1] += start[i];
+        }
+        int[] sources = new int[start[targets.length]];
+        byte[] directions = new byte[sources.length];
+        int[] next = start.clone();
+        for (int index = 0; index < targets.length; index++) {
+            if (targets[index] >= 0) {
+                int position = next[targets[index] * DIRECTIONS + moveDirections[index]]++;
+                sources[position] = index / DIRECTIONS;
+                directions[position] = (byte) (index % DIRECTIONS);
+            }
+        }
+        return new ReverseTable(start, sources, directions, maxSources);
+    }
+
+    /**
+     * Returns the maximum number of predecessors of a state, which is the size
+     * a buffer passed to {@link #predecessors(long, long[])} must have.
+     *
+     * @return the maximum number of predecessors of a state on this board
+     */
+    public int maxPredecessors() {
+        return 2 * DIRECTIONS * DIRECTIONS * reverseTable().maxSources();
+    }
+
+    /**
+     * Writes the packed states from which the given state is reached in one legal move into
+     * {@code predecessors}, without allocating.
+     * <p>
+     * If exactly one figure has a last move, it was the last to move and the other figure has not
+     * moved since the last reset. If neither has, the state is the result of a reset: either figure
+     * moved last, and the other figure's last move before the reset can be any direction
+     * allowed by the alternating-direction rule. A state where both figures have a last move has
+     * no predecessors.
+     *
+     * @param state the packed state
+     * @param predecessors the buffer receiving the packed predecessor states,
+     *                     of length at least {@link #maxPredecessors()}
+     * @return the number of predecessors written into {@code predecessors}
+     */
+    public int predecessors(long state, long[] predecessors) {
+        var table = reverseTable();
+        int cell1 = PackedState.cell1(state);
+        int lastMove1 = PackedState.lastMove1(state);
+        int cell2 = PackedState.cell2(state);
+        int lastMove2 = PackedState.lastMove2(state);
+        int count = 0;
+        if (lastMove1 != NONE && lastMove2 == NONE) {
+            count = addPredecessors(table, predecessors, count, 1, cell1, lastMove1, cell2, NONE);
+        } else if (lastMove1 == NONE && lastMove2 != NONE) {
+            count = addPredecessors(table, predecessors, count, 2, cell2, lastMove2, cell1, NONE);
+        } else if (lastMove1 == NONE) {
+            for (int otherLastMove = 0; otherLastMove < DIRECTIONS; otherLastMove++) {
+                for (int direction = 0; direction < DIRECTIONS; direction++) {
+                    count = addPredecessors(table, predecessors, count, 1, cell1, direction, cell2, otherLastMove);
+                    count = addPredecessors(table, predecessors, count, 2, cell2, direction, cell1, otherLastMove);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int addPredecessors(ReverseTable table, long[] predecessors, int count, int figure,
+                                       int cell, int direction, int otherCell, int otherLastMove) {
+        int index = cell * DIRECTIONS + direction;
+        int allowed = ALLOWED_DIRECTIONS[otherLastMove];
+        for (int i = table.start()[index]; i < table.start()[index + 1]; i++) {
+            int source = table.sources()[i];
+            if ((allowed & 1 << table.directions()[i]) == 0) {
+                continue;
+            }
+            if (figure == 1) {
+                predecessors[count++] = PackedState.pack(source, NONE, otherCell, otherLastMove);
+            } else if (source != otherCell || otherLastMove != NONE) {
+                // with both figures on the same cell and not moved yet, the first figure would move
+                predecessors[count++] = PackedState.pack(otherCell, otherLastMove, source, NONE);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the {@link Direction} ordinal of the direction opposite to the given one.
+     *
+     * @param direction a {@link Direction} ordinal other than {@link Direction#NONE}
+     * @return the ordinal of the opposite direction
+     */
+    static int opposite(int direction) {
+        return DIRECTIONS - 1 - direction;
+    }
+
+    /**
+     * Returns the cell reached from {@code cell} in the given direction.
+     *
+     * @param cell the cell index to move from
+     * @param direction the {@link Direction} ordinal of the move
+     * @return the target cell index, or {@code -1} if the move leaves the board or does not move
+     */
+    public int target(int cell, int direction) {
+        return targets[cell * DIRECTIONS + direction];
+    }
+
+    /**
+     * Returns the bitmask of the directions a figure may move in from the given cell
+     * when the other figure's last move was {@code otherLastMove}.
+     *
+     * @param cell the cell index to move from
+     * @param otherLastMove the {@link Direction} ordinal of the other figure's last move
+     * @return bitmask of {@link Direction} ordinals
+     */
+    public int legalDirections(int cell, int otherLastMove) {
+        return reachable[cell] & ALLOWED_DIRECTIONS[otherLastMove];
+    }
+
+    /**
+     * Writes the legal moves of the packed state into {@code moves} without allocating.
+     *
+     * @param state the packed state
+     * @param moves the buffer receiving the encoded moves, of length at least {@link #MAX_MOVES}
+     * @return the number of legal moves written into {@code moves}
+     */
+    public int generate(long state, int[] moves) {
+        int cell1 = PackedState.cell1(state);
+        int lastMove1 = PackedState.lastMove1(state);
+        int cell2 = PackedState.cell2(state);
+        int lastMove2 = PackedState.lastMove2(state);
+        int count = 0;
+        if (lastMove1 == NONE) {
+            count = addMoves(moves, count, 0, legalDirections(cell1, lastMove2));
+        }
+        if (lastMove2 == NONE && (cell1 != cell2 || lastMove1 != NONE)) {
+            count = addMoves(moves, count, 1, legalDirections(cell2, lastMove1));
+        }
+        return count;
+    }
+
+    private static int addMoves(int[] moves, int count, int figure, int directions) {
+        while (directions != 0) {
+            int direction = Integer.numberOfTrailingZeros(directions);
+            moves[count++] = figure << 2 | direction;
+            directions &= directions - 1;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of the figure making the encoded move.
+     *
+     * @param move the encoded move
+     * @return {@code 1} or {@code 2}
+     */
+    public static int figure(int move) {
+        return (move >>> 2) + 1;
+    }
+
+    /**
+     * Returns the {@link Direction} ordinal the encoded move is generated by.
+     *
+     * @param move the encoded move
+     * @return the {@link Direction} ordinal
+     */
+    public static int direction(int move) {
+        return move & 3;
+    }
+
+    /**
+     * Returns the cell the encoded move starts from.
+     *
+     * @param state the packed state the move is made in
+     * @param move the encoded move
+     * @return the cell index to move from
+     */
+    public static int from(long state, int move) {
+        return figure(move) == 1 ? PackedState.cell1(state) : PackedState.cell2(state);
+    }
+
+    /**
+     * Returns the cell the encoded move arrives at.
+     *
+     * @param state the packed state the move is made in
+     * @param move the encoded move
+     * @return the cell index to move to
+     */
+    public int to(long state, int move) {
+        return target(from(state, move), direction(move));
+    }
+
+    /**
+     * Applies an encoded legal move to a packed state.
+     *
+     * @param state the packed state
+     * @param move the encoded move generated for {@code state}
+     * @return the packed state after the move
+     */
+    public long apply(long state, int move) {
+        int index = from(state, move) * DIRECTIONS + direction(move);
+        return PackedState.makeMove(state, figure(move), targets[index], moveDirections[index]);
+    }
+
+    /**
+     * Applies a move from cell {@code from} to cell {@code to} and returns the resulting packed state.
+     * The move is not validated, it is applied exactly as {@link BoardGameState#makeMove} does.
+     *
+     * @param state the packed state
+     * @param from the cell index to move from
+     * @param to the cell index to move to
+     * @return the packed state after the move
+     */
+    public long makeMove(long state, int from, int to) {
+        int direction;
+        if (from % columns == to % columns) {
+            direction = (to > from ? Direction.DOWN : Direction.UP).ordinal();
+        } else {
+            direction = (to > from ? Direction.RIGHT : Direction.LEFT).ordinal();
+        }
+        return PackedState.makeMove(state, PackedState.movingFigure(state, from), to, direction);
+    }
+
+    /**
+     * Returns the encoded move leading from a packed state to one of its successors.
+     *
+     * @param state the packed state
+     * @param next a successor of {@code state}
+     * @return the encoded move, or {@code -1} if {@code next} is not a successor of {@code state}
+     */
+    public int moveBetween(long state, long next) {
+        int[] moves = new int[MAX_MOVES];
+        int count = generate(state, moves);
+        for (int i = 0; i < count; i++) {
+            if (apply(state, moves[i]) == next) {
+                return moves[i];
+            }
+        }
+        return -1;
+    }
+}
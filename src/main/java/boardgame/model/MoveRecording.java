@@ -0,0 +1,166 @@
+package boardgame.model;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Compact record of the moves of a game.
+ * <p>
+ * Every move is stored as a single byte holding the move encoded as defined by
+ * {@link MoveGenerator}, that is the moving figure and the direction of the move. The
+ * target of a move follows from the state it is made in, so a game played from the start
+ * state of a board is fully described by its moves. Use {@link GameReplay} to rebuild the
+ * states of a recorded game.
+ */
+public final class MoveRecording {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private final Board board;
+    private final long start;
+    private long state;
+    private byte[] moves;
+    private int size;
+
+    /**
+     * Creates an empty recording of a game played from the start state of a board.
+     *
+     * @param board the board of the game
+     */
+    public MoveRecording(Board board) {
+        this(board, board.startState(), new byte[INITIAL_CAPACITY], 0);
+    }
+
+    private MoveRecording(Board board, long start, byte[] moves, int size) {
+        this.board = board;
+        this.start = start;
+        this.state = start;
+        this.moves = moves;
+        this.size = size;
+    }
+
+    /**
+     * Decodes a recording of a game played from the start state of a board.
+     *
+     * @param board the board of the game
+     * @param moves the encoded moves, as returned by {@link #toBytes()}
+     * @return the decoded {@code MoveRecording}
+     * @throws IllegalArgumentException if the moves are not a legal game on the board
+     */
+    public static MoveRecording decode(Board board, byte[] moves) {
+        var recording = new MoveRecording(board, board.startState(), moves.clone(), moves.length);
+        var moveGenerator = board.getMoveGenerator();
+        int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+        long state = recording.start;
+        for (int ply = 0; ply < moves.length; ply++) {
+            int move = moves[ply];
+            int count = moveGenerator.generate(state, legalMoves);
+            int i = 0;
+            while (i < count && legalMoves[i] != move) {
+                i++;
+            }
+            if (i == count) {
+                throw new IllegalArgumentException("Illegal move at ply " + ply);
+            }
+            state = moveGenerator.apply(state, move);
+        }
+        recording.state = state;
+        return recording;
+    }
+
+    /**
+     * Decodes a recording from its Base64 text form.
+     *
+     * @param board the board of the game
+     * @param text the encoded moves, as returned by {@link #encode()}
+     * @return the decoded {@code MoveRecording}
+     * @throws IllegalArgumentException if the text is not valid Base64 or the moves are not a legal game
+     */
+    public static MoveRecording decode(Board board, String text) {
+        return decode(board, Base64.getDecoder().decode(text));
+    }
+
+    /**
+     * Records the move leading from the current state to the next one.
+     *
+     * @param next the packed state after the move
+     * @throws IllegalArgumentException if {@code next} is not reachable from the current state in one move
+     */
+    public void record(long next) {
+        int move = board.getMoveGenerator().moveBetween(state, next);
+        if (move == -1) {
+            throw new IllegalArgumentException("Not a legal move");
+        }
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = (byte) move;
+        state = next;
+    }
+
+    /**
+     * Returns the board of the game.
+     *
+     * @return the {@link Board}
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the packed state the game started from.
+     *
+     * @return the packed start state
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the packed state after the last recorded move.
+     *
+     * @return the packed current state
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Returns the number of recorded moves.
+     *
+     * @return the number of moves
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a recorded move.
+     *
+     * @param ply the index of the move, starting from {@code 0}
+     * @return the move encoded as defined by {@link MoveGenerator}
+     * @throws IndexOutOfBoundsException if {@code ply} is not a recorded move
+     */
+    public int move(int ply) {
+        return moves[Objects.checkIndex(ply, size)];
+    }
+
+    /**
+     * Returns the recorded moves, one byte per move.
+     *
+     * @return the encoded moves
+     */
+    public byte[] toBytes() {
+        return Arrays.copyOf(moves, size);
+    }
+
+    /**
+     * Returns the recorded moves as Base64 text, suitable for storing in JSON.
+     *
+     * @return the encoded moves
+     */
+    public String encode() {
+        return Base64.getEncoder().encodeToString(toBytes());
+    }
+}
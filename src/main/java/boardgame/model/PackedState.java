@@ -0,0 +1,191 @@
+package boardgame.model;
+
+/**
+ * Utility class encoding a whole {@link BoardGameState} into a single {@code long}.
+ * <p>
+ * The layout of a packed state is the following (bit 0 is the least significant bit):
+ * <ul>
+ *   <li>bits 0-27: cell index of the first figure ({@code row * columns + column})</li>
+ *   <li>bits 28-30: ordinal of the last move {@link Direction} of the first figure</li>
+ *   <li>bits 31-58: cell index of the second figure</li>
+ *   <li>bits 59-61: ordinal of the last move {@link Direction} of the second figure</li>
+ * </ul>
+ * Cell indices are relative to a {@link Board}, which converts them from and to positions.
+ * Tables with a slot for every state of a board use the dense {@linkplain #index(long, int) index}
+ * {@code (cell1 * cells + cell2) * 25 + lastMove1 * 5 + lastMove2} instead of the packed state.
+ * The primitive operations of this class follow exactly the same rules as the
+ * object based methods of {@link BoardGameState}, so searches can run on packed
+ * states without creating any objects.
+ */
+public final class PackedState {
+
+    /**
+     * Number of bits of a cell index.
+     */
+    public static final int CELL_BITS = 28;
+
+    private static final int DIRECTION_BITS = 3;
+    private static final int FIGURE_BITS = CELL_BITS + DIRECTION_BITS;
+    private static final long CELL_MASK = (1L << CELL_BITS) - 1;
+    private static final long DIRECTION_MASK = (1L << DIRECTION_BITS) - 1;
+
+    private static final int NONE = Direction.NONE.ordinal();
+    private static final int DIRECTIONS = Direction.values().length;
+    private static final int FIGURE_STATES = DIRECTIONS * DIRECTIONS;
+
+    private PackedState() {
+    }
+
+    /**
+     * Encodes the given figure data into a packed state.
+     *
+     * @param cell1 the cell index of the first figure
+     * @param lastMove1 the ordinal of the last move of the first figure
+     * @param cell2 the cell index of the second figure
+     * @param lastMove2 the ordinal of the last move of the second figure
+     * @return the packed state
+     */
+    public static long pack(int cell1, int lastMove1, int cell2, int lastMove2) {
+        return cell1 | (long) lastMove1 << CELL_BITS | (long) cell2 << FIGURE_BITS
+                | (long) lastMove2 << (FIGURE_BITS + CELL_BITS);
+    }
+
+    /**
+     * Returns the cell index of the first figure.
+     *
+     * @param state the packed state
+     * @return the cell index of the first figure
+     */
+    public static int cell1(long state) {
+        return (int) (state & CELL_MASK);
+    }
+
+    /**
+     * Returns the ordinal of the last move of the first figure.
+     *
+     * @param state the packed state
+     * @return the {@link Direction} ordinal of the last move of the first figure
+     */
+    public static int lastMove1(long state) {
+        return (int) (state >>> CELL_BITS & DIRECTION_MASK);
+    }
+
+    /**
+     * Returns the cell index of the second figure.
+     *
+     * @param state the packed state
+     * @return the cell index of the second figure
+     */
+    public static int cell2(long state) {
+        return (int) (state >>> FIGURE_BITS & CELL_MASK);
+    }
+
+    /**
+     * Returns the ordinal of the last move of the second figure.
+     *
+     * @param state the packed state
+     * @return the {@link Direction} ordinal of the last move of the second figure
+     */
+    public static int lastMove2(long state) {
+        return (int) (state >>> (FIGURE_BITS + CELL_BITS) & DIRECTION_MASK);
+    }
+
+    /**
+     * Checks whether a figure can move from the given cell.
+     *
+     * @param state the packed state
+     * @param cell the cell index to move from
+     * @return {@code true} if a figure can move from {@code cell}, {@code false} otherwise
+     * @see BoardGameState#isLegalToMoveFrom(Position)
+     */
+    public static boolean isLegalToMoveFrom(long state, int cell) {
+        return (cell1(state) == cell && lastMove1(state) == NONE)
+                || (cell2(state) == cell && lastMove2(state) == NONE);
+    }
+
+    /**
+     * Returns which figure moves from the given cell, following the rules of
+     * {@link BoardGameState#makeMove}: if both figures stand on {@code cell},
+     * the first figure moves unless it has already moved.
+     *
+     * @param state the packed state
+     * @param cell the cell index to move from
+     * @return {@code 1} or {@code 2}, the number of the moving figure
+     * @throws IllegalArgumentException if neither figure stands on {@code cell}
+     */
+    public static int movingFigure(long state, int cell) {
+        int cell1 = cell1(state);
+        if (cell1 == cell && (cell2(state) != cell || lastMove1(state) == NONE)) {
+            return 1;
+        } else if (cell2(state) == cell) {
+            return 2;
+        }
+        throw new IllegalArgumentException("Invalid cell value!");
+    }
+
+    /**
+     * Moves the given figure to cell {@code to} recording {@code direction} as its last move,
+     * and returns the resulting packed state. The move is not validated; after both figures
+     * have moved their last moves are reset to {@link Direction#NONE}, exactly as
+     * {@link BoardGameState#makeMove} does.
+     *
+     * @param state the packed state
+     * @param figure the number of the moving figure, {@code 1} or {@code 2}
+     * @param to the cell index to move to
+     * @param direction the {@link Direction} ordinal of the move
+     * @return the packed state after the move
+     */
+    public static long makeMove(long state, int figure, int to, int direction) {
+        int cell1 = cell1(state);
+        int lastMove1 = lastMove1(state);
+        int cell2 = cell2(state);
+        int lastMove2 = lastMove2(state);
+        if (figure == 1) {
+            cell1 = to;
+            lastMove1 = direction;
+        } else {
+            cell2 = to;
+            lastMove2 = direction;
+        }
+        if (lastMove1 != NONE && lastMove2 != NONE) {
+            lastMove1 = NONE;
+            lastMove2 = NONE;
+        }
+        return pack(cell1, lastMove1, cell2, lastMove2);
+    }
+
+    /**
+     * Returns the number of states of a board, the size of a table indexed by {@link #index(long, int)}.
+     *
+     * @param board the board of the game
+     * @return the number of packed states of the board
+     */
+    public static long states(Board board) {
+        return (long) board.getCells() * board.getCells() * FIGURE_STATES;
+    }
+
+    /**
+     * Returns the dense index of a packed state, from {@code 0} to {@code cells * cells * 25 - 1}.
+     *
+     * @param state the packed state
+     * @param cells the number of cells of the board
+     * @return the index of the state
+     */
+    public static long index(long state, int cells) {
+        return ((long) cell1(state) * cells + cell2(state)) * FIGURE_STATES
+                + lastMove1(state) * DIRECTIONS + lastMove2(state);
+    }
+
+    /**
+     * Returns the packed state of a dense index, the inverse of {@link #index(long, int)}.
+     *
+     * @param index the index of the state
+     * @param cells the number of cells of the board
+     * @return the packed state
+     */
+    public static long fromIndex(long index, int cells) {
+        int figures = (int) (index % FIGURE_STATES);
+        long pair = index / FIGURE_STATES;
+        return pack((int) (pair / cells), figures / DIRECTIONS, (int) (pair % cells), figures % DIRECTIONS);
+    }
+}
@@ -8,6 +8,34 @@ package boardgame.model;
  */
 public record Position(int row, int column) {
 
+    /**
+     * Positions with row and column below this value are cached by {@link #of(int, int)}.
+     */
+    public static final int CACHE_SIZE = 128;
+
+    private static final Position[] CACHE = new Position[CACHE_SIZE * CACHE_SIZE];
+
+    /**
+     * Returns a {@code Position} with the given row and column. Positions within
+     * {@link #CACHE_SIZE} rows and columns are shared instances, created on first use,
+     * so no object is allocated when they are looked up again.
+     *
+     * @param row the row index of the position
+     * @param column the column index of the position
+     * @return the {@code Position}
+     */
+    public static Position of(int row, int column) {
+        if (row < 0 || column < 0 || row >= CACHE_SIZE || column >= CACHE_SIZE) {
+            return new Position(row, column);
+        }
+        int index = row * CACHE_SIZE + column;
+        var position = CACHE[index];
+        if (position == null) {
+            position = new Position(row, column);
+            CACHE[index] = position;
+        }
+        return position;
+    }
 
     /**
      * Calculates the {@link Direction} representing the movement from one {@code Position} to another.
@@ -51,7 +79,7 @@ public record Position(int row, int column) {
     public static Position getNewPosition(Position from, Direction direction, int steps) {
         int newRow = from.row() + direction.getRow() * steps;
         int newColumn = from.column() + direction.getColumn() * steps;
-        return new Position(newRow, newColumn);
+        return of(newRow, newColumn);
     }
 
     @Override
@@ -0,0 +1,153 @@
+package boardgame.model;
+
+import java.util.Arrays;
+
+/**
+ * Mutable game state for depth-first searches, supporting {@link #makeMove(int)} and
+ * {@link #unmakeMove()} without allocating.
+ * <p>
+ * The current state is kept as a packed state, and every move pushes the state it was made
+ * from onto an undo stack, so a search can walk down and back up the game tree in place
+ * instead of cloning {@link BoardGameState} objects. Moves are encoded as defined by
+ * {@link MoveGenerator}. The undo stack only grows when the search gets deeper than ever before.
+ */
+public final class SearchState {
+
+    private static final int INITIAL_DEPTH = 64;
+
+    private final Board board;
+    private final MoveGenerator moveGenerator;
+    private long state;
+    private long[] undoStack = new long[INITIAL_DEPTH];
+    private int depth;
+
+    /**
+     * Creates a search state starting from a packed state.
+     *
+     * @param board the board of the game
+     * @param start the packed start state
+     */
+    public SearchState(Board board, long start) {
+        this.board = board;
+        this.moveGenerator = board.getMoveGenerator();
+        this.state = start;
+    }
+
+    /**
+     * Creates a search state starting from a {@link BoardGameState}.
+     *
+     * @param start the start state
+     */
+    public SearchState(BoardGameState start) {
+        this(start.getBoard(), start.toPacked());
+    }
+
+    /**
+     * Makes a move, remembering the current state so that it can be undone.
+     *
+     * @param move the encoded move, which must be legal in the current state
+     */
+    public void makeMove(int move) {
+        if (depth == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, depth * 2);
+        }
+        undoStack[depth++] = state;
+        state = moveGenerator.apply(state, move);
+    }
+
+    /**
+     * Undoes the last move made.
+     *
+     * @throws IllegalStateException if no move has been made
+     */
+    public void unmakeMove() {
+        if (depth == 0) {
+            throw new IllegalStateException("No move to undo!");
+        }
+        state = undoStack[--depth];
+    }
+
+    /**
+     * Writes the legal moves of the current state into {@code moves}.
+     *
+     * @param moves the buffer receiving the encoded moves, of length at least {@link MoveGenerator#MAX_MOVES}
+     * @return the number of moves written into {@code moves}
+     */
+    public int generateMoves(int[] moves) {
+        return moveGenerator.generate(state, moves);
+    }
+
+    /**
+     * Checks whether a packed state is the current state or one of the states the moves were made from.
+     *
+     * @param packed the packed state
+     * @return {@code true} if {@code packed} is on the path from the start state, {@code false} otherwise
+     */
+    public boolean isOnPath(long packed) {
+        if (packed == state) {
+            return true;
+        }
+        for (int i = depth - 1; i >= 0; i--) {
+            if (undoStack[i] == packed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the current state is solved.
+     *
+     * @return {@code true} if both figures stand on the target cell, {@code false} otherwise
+     */
+    public boolean isSolved() {
+        return board.isSolved(state);
+    }
+
+    /**
+     * Returns the current state.
+     *
+     * @return the current packed state
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Returns the number of moves made since the start state.
+     *
+     * @return the number of moves that can be undone
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the board of the game.
+     *
+     * @return the {@link Board} of the game
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the packed states from the start state to the current state.
+     *
+     * @return the states of the current path, starting with the start state
+     */
+    public long[] path() {
+        long[] path = Arrays.copyOf(undoStack, depth + 1);
+        path[depth] = state;
+        return path;
+    }
+
+    /**
+     * Returns the current state as a {@link BoardGameState}.
+     *
+     * @return a new {@code BoardGameState} equal to the current state
+     */
+    public BoardGameState toBoardGameState() {
+        return BoardGameState.fromPacked(board, state);
+    }
+}
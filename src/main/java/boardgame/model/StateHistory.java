@@ -0,0 +1,119 @@
+package boardgame.model;
+
+/**
+ * Persistent undo/redo history of packed game states.
+ * <p>
+ * The history is immutable: every operation returns a new history and leaves this one
+ * unchanged. The states played so far and the states that can be redone are kept in two
+ * singly linked lists whose nodes are shared between the histories, so {@link #push(long)},
+ * {@link #undo()} and {@link #redo()} take constant time and add at most one small node,
+ * whatever the length of the game or the size of the board.
+ */
+public final class StateHistory {
+
+    private record Node(long state, int depth, Node next) {
+    }
+
+    private final Node played;
+    private final Node undone;
+
+    private StateHistory(Node played, Node undone) {
+        this.played = played;
+        this.undone = undone;
+    }
+
+    /**
+     * Creates a history holding only a start state.
+     *
+     * @param start the packed start state
+     * @return the new {@code StateHistory}
+     */
+    public static StateHistory of(long start) {
+        return new StateHistory(new Node(start, 0, null), null);
+    }
+
+    /**
+     * Returns the history after a move, discarding the states that could be redone.
+     *
+     * @param state the packed state after the move
+     * @return the new {@code StateHistory}
+     */
+    public StateHistory push(long state) {
+        return new StateHistory(new Node(state, played.depth + 1, played), null);
+    }
+
+    /**
+     * Returns whether there is a move to undo.
+     *
+     * @return {@code true} if the history is not at its start state, {@code false} otherwise
+     */
+    public boolean canUndo() {
+        return played.next != null;
+    }
+
+    /**
+     * Returns whether there is an undone move to redo.
+     *
+     * @return {@code true} if a move can be redone, {@code false} otherwise
+     */
+    public boolean canRedo() {
+        return undone != null;
+    }
+
+    /**
+     * Returns the history with the last move undone.
+     *
+     * @return the new {@code StateHistory}
+     * @throws IllegalStateException if there is no move to undo
+     */
+    public StateHistory undo() {
+        if (!canUndo()) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        return new StateHistory(played.next, new Node(played.state, played.depth, undone));
+    }
+
+    /**
+     * Returns the history with the last undone move made again.
+     *
+     * @return the new {@code StateHistory}
+     * @throws IllegalStateException if there is no move to redo
+     */
+    public StateHistory redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException("Nothing to redo");
+        }
+        return new StateHistory(new Node(undone.state, undone.depth, played), undone.next);
+    }
+
+    /**
+     * Returns the current state.
+     *
+     * @return the packed current state
+     */
+    public long state() {
+        return played.state;
+    }
+
+    /**
+     * Returns the number of moves made since the start state.
+     *
+     * @return the number of moves
+     */
+    public int depth() {
+        return played.depth;
+    }
+
+    /**
+     * Returns the states from the start state to the current one.
+     *
+     * @return the packed states, starting with the start state
+     */
+    public long[] path() {
+        long[] path = new long[played.depth + 1];
+        for (Node node = played; node != null; node = node.next) {
+            path[node.depth] = node.state;
+        }
+        return path;
+    }
+}
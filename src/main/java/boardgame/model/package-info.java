@@ -5,5 +5,6 @@
  * Both figures move simultaneously each turn: one moves vertically, the other horizontally,
  * by the exact number of cells indicated by their current positions on the board.
  * The goal is to move both figures together to the bottom-right target cell following the rules.
+ * The same rules can be played on custom boards of any size, see {@link boardgame.model.Board}.
  */
 package boardgame.model;
\ No newline at end of file
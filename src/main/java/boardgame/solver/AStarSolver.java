@@ -0,0 +1,136 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.MoveGenerator;
+import boardgame.util.LongLongHashMap;
+import boardgame.util.LongMinHeap;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A* search over packed states guided by a {@link DistanceHeuristic}.
+ * <p>
+ * The open list is a primitive binary heap of packed states ordered by estimated solution length,
+ * preferring deeper states on ties. Since the heuristic is admissible but not necessarily
+ * consistent, states are reopened when a shorter path to them is found, so the returned
+ * solution is always optimal.
+ * <p>
+ * The search checks the interrupt flag of its thread regularly and stops with a
+ * {@link CancellationException} when it is set, so it can run as a cancellable background task.
+ */
+public class AStarSolver implements Solver {
+
+    private static final long NO_PARENT = -1;
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private static final int INTERRUPT_CHECK_MASK = (1 << 12) - 1;
+
+    private final SearchMetrics metrics;
+    private final boolean avoidLostStates;
+
+    /**
+     * Creates a solver without instrumentation.
+     */
+    public AStarSolver() {
+        this(SearchMetrics.NONE);
+    }
+
+    /**
+     * Creates a solver without instrumentation, which may be restricted to the moves a game allows.
+     *
+     * @param avoidLostStates whether solutions may not pass through the states in which the game is
+     *                        {@linkplain Board#isLost(long) lost}
+     */
+    public AStarSolver(boolean avoidLostStates) {
+        this(SearchMetrics.NONE, avoidLostStates);
+    }
+
+    /**
+     * Creates a solver reporting to the given metrics. The depth of the search is the
+     * estimated solution length of the expanded states.
+     *
+     * @param metrics the receiver of the measurements of the searches
+     */
+    public AStarSolver(SearchMetrics metrics) {
+        this(metrics, false);
+    }
+
+    private AStarSolver(SearchMetrics metrics, boolean avoidLostStates) {
+        this.metrics = metrics;
+        this.avoidLostStates = avoidLostStates;
+    }
+
+    @Override
+    public SolverResult solve(Board board, long start) {
+        long startTime = System.nanoTime();
+        var heuristic = new DistanceHeuristic(board, avoidLostStates);
+        var moveGenerator = board.getMoveGenerator();
+        var parents = new LongLongHashMap(INITIAL_CAPACITY);
+        var costs = new LongLongHashMap(INITIAL_CAPACITY);
+        var open = new LongMinHeap(INITIAL_CAPACITY);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        long nodesExpanded = 0;
+        int bound = -1;
+
+        int estimate = heuristic.estimate(start);
+        if (estimate != DistanceHeuristic.UNREACHABLE) {
+            parents.put(start, NO_PARENT);
+            costs.put(start, 0);
+            open.add(priority(estimate, 0), start);
+        }
+        while (!open.isEmpty()) {
+            long priority = open.peekPriority();
+            long state = open.poll();
+            int cost = (int) costs.get(state, 0);
+            int length = cost + heuristic.estimate(state);
+            if (priority != priority(length, cost)) {
+                continue;
+            }
+            if (length > bound) {
+                bound = length;
+                metrics.startDepth(bound);
+            }
+            if (board.isSolved(state)) {
+                return finish(SolverResult.solved(board, BreadthFirstSolver.path(parents, state), nodesExpanded,
+                        Duration.ofNanos(System.nanoTime() - startTime)), parents, costs, open);
+            }
+            if ((++nodesExpanded & INTERRUPT_CHECK_MASK) == 0 && Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Search interrupted after " + nodesExpanded + " expansions");
+            }
+            int count = moveGenerator.generate(state, moves);
+            int duplicates = 0;
+            for (int i = 0; i < count; i++) {
+                long successor = moveGenerator.apply(state, moves[i]);
+                int successorCost = cost + 1;
+                if (successorCost < costs.get(successor, Long.MAX_VALUE)) {
+                    int successorEstimate = heuristic.estimate(successor);
+                    if (successorEstimate == DistanceHeuristic.UNREACHABLE) {
+                        continue;
+                    }
+                    costs.put(successor, successorCost);
+                    parents.put(successor, state);
+                    open.add(priority(successorCost + successorEstimate, successorCost), successor);
+                } else {
+                    duplicates++;
+                }
+            }
+            metrics.expanded(1, count, duplicates);
+            metrics.frontier(open.size());
+        }
+        return finish(SolverResult.unsolvable(nodesExpanded, Duration.ofNanos(System.nanoTime() - startTime)),
+                parents, costs, open);
+    }
+
+    private SolverResult finish(SolverResult result, LongLongHashMap parents, LongLongHashMap costs, LongMinHeap open) {
+        metrics.visited(parents.size(), parents.loadFactor(), parents.bytesUsed() + costs.bytesUsed() + open.bytesUsed());
+        metrics.finished(result);
+        return result;
+    }
+
+    /**
+     * Orders states by estimated solution length, and by decreasing cost on ties.
+     */
+    private static long priority(int estimatedLength, int cost) {
+        return ((long) estimatedLength << 32) - cost;
+    }
+}
@@ -0,0 +1,192 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.Direction;
+import boardgame.model.MoveGenerator;
+import boardgame.model.PackedState;
+import boardgame.util.LongLongHashMap;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Bidirectional breadth-first search over packed states.
+ * <p>
+ * The search runs forward from the start state and backward from the solved states, using the
+ * predecessors computed by {@link MoveGenerator#predecessors(long, long[])}. In every round the
+ * side with the smaller frontier is expanded by a whole level, and the search stops after the first
+ * level in which the two sides meet, taking the shortest of the paths through the meeting states.
+ */
+public class BidirectionalSolver implements Solver {
+
+    private static final long NONE = -1;
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private static final int NO_DIRECTION = Direction.NONE.ordinal();
+
+    private final SearchMetrics metrics;
+
+    /**
+     * Creates a solver without instrumentation.
+     */
+    public BidirectionalSolver() {
+        this(SearchMetrics.NONE);
+    }
+
+    /**
+     * Creates a solver reporting to the given metrics. The depth of the search is the sum of the
+     * depths reached by the two sides, and the visited set holds the states of both sides.
+     *
+     * @param metrics the receiver of the measurements of the searches
+     */
+    public BidirectionalSolver(SearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SolverResult solve(Board board, long start) {
+        long startTime = System.nanoTime();
+        metrics.startDepth(0);
+        var moveGenerator = board.getMoveGenerator();
+        var parents = new LongLongHashMap(INITIAL_CAPACITY);
+        var children = new LongLongHashMap(INITIAL_CAPACITY);
+        parents.put(start, NONE);
+        long[] forward = {start};
+        long[] backward = solvedStates(board);
+        for (long state : backward) {
+            children.put(state, NONE);
+        }
+        if (board.isSolved(start)) {
+            return finish(SolverResult.solved(board, new long[]{start}, 0, Duration.ofNanos(System.nanoTime() - startTime)),
+                    parents, children);
+        }
+
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        long[] predecessors = new long[moveGenerator.maxPredecessors()];
+        int forwardDepth = 0;
+        int backwardDepth = 0;
+        long nodesExpanded = 0;
+        long meeting = NONE;
+        int bestLength = Integer.MAX_VALUE;
+        while (forward.length > 0 && backward.length > 0) {
+            boolean expandForward = forward.length <= backward.length;
+            var next = new long[Math.max(16, (expandForward ? forward.length : backward.length) * 2)];
+            int size = 0;
+            long generated = 0;
+            if (expandForward) {
+                for (long state : forward) {
+                    nodesExpanded++;
+                    int count = moveGenerator.generate(state, moves);
+                    generated += count;
+                    for (int i = 0; i < count; i++) {
+                        long successor = moveGenerator.apply(state, moves[i]);
+                        if (parents.putIfAbsent(successor, state)) {
+                            if (children.containsKey(successor)) {
+                                int length = forwardDepth + 1 + pathLength(children, successor);
+                                if (length < bestLength) {
+                                    bestLength = length;
+                                    meeting = successor;
+                                }
+                            }
+                            next = append(next, size++, successor);
+                        }
+                    }
+                }
+                forwardDepth++;
+                metrics.expanded(forward.length, generated, generated - size);
+                forward = trim(next, size);
+            } else {
+                for (long state : backward) {
+                    nodesExpanded++;
+                    int count = moveGenerator.predecessors(state, predecessors);
+                    generated += count;
+                    for (int i = 0; i < count; i++) {
+                        long predecessor = predecessors[i];
+                        if (children.putIfAbsent(predecessor, state)) {
+                            if (parents.containsKey(predecessor)) {
+                                int length = pathLength(parents, predecessor) + backwardDepth + 1;
+                                if (length < bestLength) {
+                                    bestLength = length;
+                                    meeting = predecessor;
+                                }
+                            }
+                            next = append(next, size++, predecessor);
+                        }
+                    }
+                }
+                backwardDepth++;
+                metrics.expanded(backward.length, generated, generated - size);
+                backward = trim(next, size);
+            }
+            metrics.startDepth(forwardDepth + backwardDepth);
+            metrics.frontier(size);
+            if (meeting != NONE) {
+                return finish(SolverResult.solved(board, path(parents, children, meeting), nodesExpanded,
+                        Duration.ofNanos(System.nanoTime() - startTime)), parents, children);
+            }
+        }
+        return finish(SolverResult.unsolvable(nodesExpanded, Duration.ofNanos(System.nanoTime() - startTime)),
+                parents, children);
+    }
+
+    private SolverResult finish(SolverResult result, LongLongHashMap parents, LongLongHashMap children) {
+        long bytesUsed = parents.bytesUsed() + children.bytesUsed();
+        long states = parents.size() + children.size();
+        metrics.visited(states, (double) states / (bytesUsed / (2 * Long.BYTES)), bytesUsed);
+        metrics.finished(result);
+        return result;
+    }
+
+    /**
+     * Returns the packed solved states of a board, with both figures on the target cell and
+     * at most one of them having a last move.
+     *
+     * @param board the board of the game
+     * @return the packed solved states
+     */
+    static long[] solvedStates(Board board) {
+        int target = board.getTargetCell();
+        long[] states = new long[2 * NO_DIRECTION + 1];
+        int count = 0;
+        states[count++] = PackedState.pack(target, NO_DIRECTION, target, NO_DIRECTION);
+        for (int direction = 0; direction < NO_DIRECTION; direction++) {
+            states[count++] = PackedState.pack(target, direction, target, NO_DIRECTION);
+            states[count++] = PackedState.pack(target, NO_DIRECTION, target, direction);
+        }
+        return states;
+    }
+
+    private static long[] append(long[] array, int index, long value) {
+        if (index == array.length) {
+            array = Arrays.copyOf(array, array.length * 2);
+        }
+        array[index] = value;
+        return array;
+    }
+
+    private static long[] trim(long[] array, int size) {
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+
+    private static int pathLength(LongLongHashMap links, long state) {
+        int length = 0;
+        for (long s = links.get(state, NONE); s != NONE; s = links.get(s, NONE)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static long[] path(LongLongHashMap parents, LongLongHashMap children, long meeting) {
+        int forwardLength = pathLength(parents, meeting);
+        long[] path = new long[forwardLength + 1 + pathLength(children, meeting)];
+        int index = forwardLength;
+        for (long s = meeting; s != NONE; s = parents.get(s, NONE)) {
+            path[index--] = s;
+        }
+        index = forwardLength;
+        for (long s = meeting; s != NONE; s = children.get(s, NONE)) {
+            path[index++] = s;
+        }
+        return path;
+    }
+}
@@ -0,0 +1,119 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.MoveGenerator;
+import boardgame.util.LongLongHashMap;
+import boardgame.util.LongQueue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Breadth-first search over packed states.
+ * <p>
+ * Visited states are stored in a primitive open addressing hash map together with their
+ * parent state, and the frontier is a ring buffer of packed states, so no objects are
+ * created per expanded node.
+ */
+public class BreadthFirstSolver implements Solver {
+
+    private static final long NO_PARENT = -1;
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private final SearchMetrics metrics;
+
+    /**
+     * Creates a solver without instrumentation.
+     */
+    public BreadthFirstSolver() {
+        this(SearchMetrics.NONE);
+    }
+
+    /**
+     * Creates a solver reporting to the given metrics.
+     *
+     * @param metrics the receiver of the measurements of the searches
+     */
+    public BreadthFirstSolver(SearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SolverResult solve(Board board, long start) {
+        long startTime = System.nanoTime();
+        metrics.startDepth(0);
+        if (board.isSolved(start)) {
+            return finish(SolverResult.solved(board, new long[]{start}, 0, Duration.ofNanos(System.nanoTime() - startTime)));
+        }
+        var moveGenerator = board.getMoveGenerator();
+        var parents = new LongLongHashMap(INITIAL_CAPACITY);
+        var frontier = new LongQueue(INITIAL_CAPACITY);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        parents.put(start, NO_PARENT);
+        frontier.add(start);
+        long nodesExpanded = 0;
+        int depth = 0;
+        int levelRemaining = 1;
+        while (!frontier.isEmpty()) {
+            if (levelRemaining-- == 0) {
+                metrics.startDepth(++depth);
+                metrics.frontier(frontier.size());
+                levelRemaining = frontier.size() - 1;
+            }
+            long state = frontier.poll();
+            nodesExpanded++;
+            int count = moveGenerator.generate(state, moves);
+            int added = 0;
+            for (int i = 0; i < count; i++) {
+                long next = moveGenerator.apply(state, moves[i]);
+                if (parents.putIfAbsent(next, state)) {
+                    added++;
+                    if (board.isSolved(next)) {
+                        metrics.expanded(1, i + 1, i + 1 - added);
+                        metrics.visited(parents.size(), parents.loadFactor(), parents.bytesUsed() + frontier.bytesUsed());
+                        return finish(SolverResult.solved(board, path(parents, next), nodesExpanded,
+                                Duration.ofNanos(System.nanoTime() - startTime)));
+                    }
+                    frontier.add(next);
+                }
+            }
+            metrics.expanded(1, count, count - added);
+        }
+        metrics.visited(parents.size(), parents.loadFactor(), parents.bytesUsed() + frontier.bytesUsed());
+        return finish(SolverResult.unsolvable(nodesExpanded, Duration.ofNanos(System.nanoTime() - startTime)));
+    }
+
+    private SolverResult finish(SolverResult result) {
+        metrics.finished(result);
+        return result;
+    }
+
+    /**
+     * Follows the parent links from a state back to the start state.
+     *
+     * @param parents the parent of each visited state
+     * @param state the last state of the path
+     * @return the packed states of the path, starting with the start state
+     */
+    static long[] path(LongLongHashMap parents, long state) {
+        int length = 0;
+        for (long s = state; s != NO_PARENT; s = parents.get(s, NO_PARENT)) {
+            length++;
+        }
+        long[] path = new long[length];
+        for (long s = state; s != NO_PARENT; s = parents.get(s, NO_PARENT)) {
+            path[--length] = s;
+        }
+        return path;
+    }
+
+    public static void main(String[] args) throws IOException {
+        var board = args.length > 0 ? Board.load(Path.of(args[0])) : Board.STANDARD;
+        var statistics = new SearchStatistics();
+        var result = new BreadthFirstSolver(statistics).solve(board, board.startState());
+        result.moves().forEach(System.out::println);
+        System.out.println(result);
+        statistics.log("BreadthFirstSolver");
+    }
+}
@@ -0,0 +1,279 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.Direction;
+import boardgame.model.MoveGenerator;
+import boardgame.model.PackedState;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Exact distance to the solved state for every state of a board, computed by retrograde analysis.
+ * <p>
+ * Starting from the solved states, a backward breadth-first search over the predecessors of
+ * each state assigns the length of the shortest solution to every state that can be solved.
+ * States in which the game is {@linkplain Board#isLost(long) lost} are skipped, so neither the
+ * distances nor the best moves lead through them. The distances are stored as one unsigned byte
+ * per state, indexed by {@link PackedState#index(long, int)}, with {@code 0xFF} marking states
+ * that cannot be solved. A database can be saved into a compact binary file, which
+ * is memory-mapped when loaded, so lookups take constant time without reading the whole file.
+ */
+public final class DistanceDatabase {
+
+    /**
+     * The distance of states that cannot be solved.
+     */
+    public static final int UNSOLVABLE = -1;
+
+    /**
+     * The largest distance that can be stored.
+     */
+    public static final int MAX_DISTANCE = 0xFE;
+
+    private static final int MAGIC = 0x42474444;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 24;
+    private static final byte UNKNOWN = (byte) 0xFF;
+    private static final int DIRECTIONS = Direction.values().length;
+
+    private final Board board;
+    private final int cells;
+    private final ByteBuffer data;
+
+    private DistanceDatabase(Board board, ByteBuffer data) {
+        this.board = board;
+        this.cells = board.getCells();
+        this.data = data;
+    }
+
+    /**
+     * Checks whether the whole state space of a board fits into a database.
+     *
+     * @param board the board of the game
+     * @return {@code true} if a database can be built for the board, {@code false} otherwise
+     */
+    public static boolean supports(Board board) {
+        return PackedState.states(board) + HEADER_SIZE <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Computes the distance of every state of a board.
+     *
+     * @param board the board of the game
+     * @return the new {@code DistanceDatabase}
+     * @throws IllegalArgumentException if the state space of the board is too large
+     * @throws IllegalStateException if a distance exceeds {@link #MAX_DISTANCE}
+     */
+    public static DistanceDatabase build(Board board) {
+        if (!supports(board)) {
+            throw new IllegalArgumentException("The state space of " + board + " is too large!");
+        }
+        int states = (int) PackedState.states(board);
+        var data = ByteBuffer.allocate(HEADER_SIZE + states);
+        writeHeader(data, board);
+        for (int i = 0; i < states; i++) {
+            data.put(HEADER_SIZE + i, UNKNOWN);
+        }
+        var database = new DistanceDatabase(board, data);
+
+        var moveGenerator = board.getMoveGenerator();
+        long[] predecessors = new long[moveGenerator.maxPredecessors()];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        int target = board.getTargetCell();
+        for (int lastMove1 = 0; lastMove1 < DIRECTIONS; lastMove1++) {
+            for (int lastMove2 = 0; lastMove2 < DIRECTIONS; lastMove2++) {
+                int index = database.index(PackedState.pack(target, lastMove1, target, lastMove2));
+                data.put(HEADER_SIZE + index, (byte) 0);
+                queue[tail++] = index;
+            }
+        }
+        while (head < tail) {
+            int index = queue[head++];
+            int distance = (data.get(HEADER_SIZE + index) & 0xFF) + 1;
+            int count = moveGenerator.predecessors(database.state(index), predecessors);
+            for (int i = 0; i < count; i++) {
+                if (board.isLost(predecessors[i])) {
+                    continue;
+                }
+                int predecessor = database.index(predecessors[i]);
+                if (data.get(HEADER_SIZE + predecessor) == UNKNOWN) {
+                    if (distance > MAX_DISTANCE) {
+                        throw new IllegalStateException("Distance exceeds " + MAX_DISTANCE + " on " + board);
+                    }
+                    data.put(HEADER_SIZE + predecessor, (byte) distance);
+                    queue[tail++] = predecessor;
+                }
+            }
+        }
+        return database;
+    }
+
+    /**
+     * Memory-maps a database file written by {@link #save(Path)}.
+     *
+     * @param path the path of the file
+     * @param board the board the database was built for
+     * @return the loaded {@code DistanceDatabase}
+     * @throws IOException if the file cannot be read, or it was not built for {@code board}
+     */
+    public static DistanceDatabase load(Path path, Board board) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            var expected = ByteBuffer.allocate(HEADER_SIZE);
+            writeHeader(expected, board);
+            if (data.limit() != HEADER_SIZE + PackedState.states(board)
+                    || !data.slice(0, HEADER_SIZE).equals(expected.clear())) {
+                throw new IOException("The file " + path + " is not a distance database of " + board);
+            }
+            return new DistanceDatabase(board, data);
+        }
+    }
+
+    /**
+     * Loads the database of a board from a directory, or builds and saves it there if it does not
+     * exist yet. A file that cannot be loaded, because it is damaged or was written by another
+     * version, is replaced by a rebuilt database.
+     *
+     * @param board the board of the game
+     * @param directory the directory of the database files
+     * @return the {@code DistanceDatabase} of the board
+     * @throws IOException if the file cannot be written
+     */
+    public static DistanceDatabase open(Board board, Path directory) throws IOException {
+        var path = directory.resolve(fileName(board));
+        if (Files.exists(path)) {
+            try {
+                return load(path, board);
+            } catch (IOException e) {
+                Logger.warn("Rebuilding distance database: {}", e.getMessage());
+            }
+        }
+        var database = build(board);
+        database.save(path);
+        return database;
+    }
+
+    /**
+     * Returns the name of the database file of a board, which identifies the board by its step table.
+     *
+     * @param board the board of the game
+     * @return the file name used by {@link #open(Board, Path)}
+     */
+    public static String fileName(Board board) {
+        return "distances-" + board.getId() + ".bin";
+    }
+
+    /**
+     * Writes the database into a binary file. The database is written into a temporary file
+     * first, which then replaces the file, so readers never see a partially written database.
+     *
+     * @param path the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffer = data.duplicate().clear();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the board of the database.
+     *
+     * @return the {@link Board} the distances were computed for
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the number of moves needed to solve a packed state.
+     *
+     * @param state the packed state
+     * @return the length of the shortest solution, or {@link #UNSOLVABLE}
+     */
+    public int distance(long state) {
+        byte distance = data.get(HEADER_SIZE + index(state));
+        return distance == UNKNOWN ? UNSOLVABLE : distance & 0xFF;
+    }
+
+    /**
+     * Checks whether a packed state can still be solved.
+     *
+     * @param state the packed state
+     * @return {@code true} if the state can be solved, {@code false} otherwise
+     */
+    public boolean isSolvable(long state) {
+        return data.get(HEADER_SIZE + index(state)) != UNKNOWN;
+    }
+
+    /**
+     * Returns a move of a shortest solution of a packed state.
+     *
+     * @param state the packed state
+     * @return the encoded move as defined by {@link MoveGenerator}, or {@code -1} if the state
+     *         is solved or cannot be solved
+     */
+    public int bestMove(long state) {
+        int distance = distance(state);
+        if (distance <= 0) {
+            return -1;
+        }
+        var moveGenerator = board.getMoveGenerator();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = moveGenerator.generate(state, moves);
+        for (int i = 0; i < count; i++) {
+            if (distance(moveGenerator.apply(state, moves[i])) == distance - 1) {
+                return moves[i];
+            }
+        }
+        throw new IllegalStateException("No successor is closer to the solution: " + state);
+    }
+
+    /**
+     * Returns the number of solvable states in the database.
+     *
+     * @return the number of states with a distance
+     */
+    public long solvableStates() {
+        long count = 0;
+        for (int i = HEADER_SIZE; i < data.limit(); i++) {
+            if (data.get(i) != UNKNOWN) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int index(long state) {
+        return (int) PackedState.index(state, cells);
+    }
+
+    private long state(int index) {
+        return PackedState.fromIndex(index, cells);
+    }
+
+    private static void writeHeader(ByteBuffer data, Board board) {
+        data.putInt(0, MAGIC)
+                .putInt(4, VERSION)
+                .putInt(8, board.getRows())
+                .putInt(12, board.getColumns())
+                .putInt(16, board.getTargetCell())
+                .putInt(20, board.fingerprint());
+    }
+}
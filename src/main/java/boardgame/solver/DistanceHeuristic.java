@@ -0,0 +1,130 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.Direction;
+import boardgame.model.PackedState;
+
+import java.util.Arrays;
+
+/**
+ * Admissible heuristic estimating the number of moves needed to solve a packed state.
+ * <p>
+ * For every cell, the number of moves a single figure needs to reach the target cell is computed
+ * by a reverse breadth-first search over the move graph of one figure, ignoring the other figure
+ * and the alternating-direction rule. Each move moves only one figure, so the sum of the two
+ * distances is a lower bound. Since every figure moves once per round, a figure needing {@code m}
+ * more moves also forces the other figure to move about {@code m} times, which gives a second bound.
+ * The estimate is the larger of the two. A heuristic may also rule out the states in which the
+ * game is {@linkplain Board#isLost(long) lost}, so searches guided by it never pass through them.
+ */
+public final class DistanceHeuristic {
+
+    /**
+     * The estimate of states from which the target cell cannot be reached.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE / 4;
+
+    private static final int NONE = Direction.NONE.ordinal();
+    private static final int DIRECTIONS = 4;
+
+    private final Board board;
+    private final boolean lostStatesUnreachable;
+    private final int[] distances;
+
+    /**
+     * Computes the single-figure distances of every cell of the board.
+     *
+     * @param board the board of the game
+     */
+    public DistanceHeuristic(Board board) {
+        this(board, false);
+    }
+
+    /**
+     * Computes the single-figure distances of every cell of the board.
+     *
+     * @param board the board of the game
+     * @param lostStatesUnreachable whether the states in which the game is {@linkplain Board#isLost(long) lost}
+     *                              are estimated {@link #UNREACHABLE}
+     */
+    public DistanceHeuristic(Board board, boolean lostStatesUnreachable) {
+        this.board = board;
+        this.lostStatesUnreachable = lostStatesUnreachable;
+        var moveGenerator = board.getMoveGenerator();
+        int cells = board.getCells();
+        int[] start = new int[cells + 1];
+        for (int cell = 0; cell < cells; cell++) {
+            for (int direction = 0; direction < DIRECTIONS; direction++) {
+                int target = moveGenerator.target(cell, direction);
+                if (target >= 0) {
+                    start[target + 1]++;
+                }
+            }
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            start[cell + 1] += start[cell];
+        }
+        int[] sources = new int[start[cells]];
+        int[] next = Arrays.copyOf(start, cells);
+        for (int cell = 0; cell < cells; cell++) {
+            for (int direction = 0; direction < DIRECTIONS; direction++) {
+                int target = moveGenerator.target(cell, direction);
+                if (target >= 0) {
+                    sources[next[target]++] = cell;
+                }
+            }
+        }
+
+        distances = new int[cells];
+        Arrays.fill(distances, UNREACHABLE);
+        int[] queue = new int[cells];
+        int head = 0;
+        int tail = 0;
+        distances[board.getTargetCell()] = 0;
+        queue[tail++] = board.getTargetCell();
+        while (head < tail) {
+            int cell = queue[head++];
+            for (int i = start[cell]; i < start[cell + 1]; i++) {
+                int source = sources[i];
+                if (distances[source] == UNREACHABLE) {
+                    distances[source] = distances[cell] + 1;
+                    queue[tail++] = source;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of moves a single figure needs to reach the target cell from a cell.
+     *
+     * @param cell the cell index
+     * @return the distance of the cell, or {@link #UNREACHABLE}
+     */
+    public int distance(int cell) {
+        return distances[cell];
+    }
+
+    /**
+     * Returns a lower bound of the number of moves needed to solve a packed state.
+     *
+     * @param state the packed state
+     * @return the estimate, or {@link #UNREACHABLE} if the state cannot be solved
+     */
+    public int estimate(long state) {
+        int distance1 = distances[PackedState.cell1(state)];
+        int distance2 = distances[PackedState.cell2(state)];
+        if (distance1 == UNREACHABLE || distance2 == UNREACHABLE || lostStatesUnreachable && board.isLost(state)) {
+            return UNREACHABLE;
+        }
+        int sum = distance1 + distance2;
+        boolean moved1 = PackedState.lastMove1(state) != NONE;
+        boolean moved2 = PackedState.lastMove2(state) != NONE;
+        if (moved1 == moved2) {
+            return Math.max(sum, 2 * Math.max(distance1, distance2) - 1);
+        } else if (moved1) {
+            return Math.max(sum, Math.max(2 * distance1, 2 * distance2 - 2));
+        } else {
+            return Math.max(sum, Math.max(2 * distance2, 2 * distance1 - 2));
+        }
+    }
+}
@@ -0,0 +1,599 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.MoveGenerator;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Breadth-first search keeping its layers and visited states in files instead of memory.
+ * <p>
+ * Every layer of the search is a file of sorted, distinct packed states. A layer is expanded by
+ * streaming it, collecting the successors in a buffer limited by the memory budget, and writing the
+ * sorted buffer as a run file whenever it is full. The runs are then merged, and the merged
+ * successors are compared with the visited states in a single sort-merge pass, which writes the
+ * states not seen before into the next layer. Since the successors of a state may lie in any earlier
+ * layer of the directed state graph, duplicates are removed against all visited states, not just
+ * the previous layers.
+ * <p>
+ * The visited states are not rewritten into a single file every layer. They are kept as a few
+ * sorted runs, the layers themselves, which are merged lazily: a new layer is merged with the
+ * newest run only while that run is at most twice as large, so the runs grow geometrically, their
+ * number stays logarithmic, and every state is rewritten only a logarithmic number of times. The
+ * sort-merge pass jumps over the parts of a run without successors by a binary search in the file,
+ * so a small layer does not read the whole visited set. The files are otherwise read and written
+ * sequentially through large direct buffers, which are taken from a pool of the search and reused
+ * by the next file.
+ * <p>
+ * The solution is reconstructed backward from the solved state: the predecessors of a state in
+ * layer {@code d + 1} are looked up in the file of layer {@code d}, which holds exactly the states
+ * at depth {@code d}. All files are deleted when the search finishes.
+ */
+public class ExternalBreadthFirstSolver implements Solver {
+
+    /**
+     * The default amount of memory a search may use for sorting.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    /**
+     * The largest number of runs merged at once.
+     */
+    public static final int MAX_FAN_IN = 64;
+
+    private static final int MIN_RUN_LENGTH = 1 << 10;
+    private static final int MIN_BUFFER_BYTES = 1 << 10;
+    private static final int MAX_BUFFER_BYTES = 1 << 20;
+    private static final long NONE = -1;
+
+    private final Path workDirectory;
+    private final int runLength;
+    private final int bufferBytes;
+    private final SearchMetrics metrics;
+
+    /**
+     * Creates a solver using the temporary directory and the {@link #DEFAULT_MEMORY_BUDGET}.
+     */
+    public ExternalBreadthFirstSolver() {
+        this(Path.of(System.getProperty("java.io.tmpdir")), DEFAULT_MEMORY_BUDGET);
+    }
+
+    /**
+     * Creates a solver writing its files into the given directory.
+     *
+     * @param workDirectory the directory of the files of the searches
+     * @param memoryBudget the number of bytes a search may use for sorting and buffering
+     */
+    public ExternalBreadthFirstSolver(Path workDirectory, long memoryBudget) {
+        this(workDirectory, memoryBudget, SearchMetrics.NONE);
+    }
+
+    /**
+     * Creates a solver writing its files into the given directory and reporting to the given metrics.
+     * The bytes used reported to the metrics are the bytes of the files of the search.
+     *
+     * @param workDirectory the directory of the files of the searches
+     * @param memoryBudget the number of bytes a search may use for sorting and buffering
+     * @param metrics the receiver of the measurements of the searches
+     */
+    public ExternalBreadthFirstSolver(Path workDirectory, long memoryBudget, SearchMetrics metrics) {
+        this.workDirectory = workDirectory;
+        this.runLength = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(MIN_RUN_LENGTH, memoryBudget / 2 / Long.BYTES));
+        long buffer = Math.max(MIN_BUFFER_BYTES, Math.min(MAX_BUFFER_BYTES, memoryBudget / 2 / (MAX_FAN_IN + 2)));
+        this.bufferBytes = (int) (buffer & -Long.BYTES);
+        this.metrics = metrics;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException if the files of the search cannot be written or read
+     */
+    @Override
+    public SolverResult solve(Board board, long start) {
+        long startTime = System.nanoTime();
+        metrics.startDepth(0);
+        if (board.isSolved(start)) {
+            return finish(SolverResult.solved(board, new long[]{start}, 0, Duration.ofNanos(System.nanoTime() - startTime)));
+        }
+        Path directory = null;
+        Throwable failure = null;
+        try {
+            directory = Files.createTempDirectory(workDirectory, "bfs-");
+            var search = new Search(board, directory);
+            long goal = search.run(start);
+            if (goal == NONE) {
+                return finish(SolverResult.unsolvable(search.nodesExpanded, Duration.ofNanos(System.nanoTime() - startTime)));
+            }
+            return finish(SolverResult.solved(board, search.path(goal), search.nodesExpanded,
+                    Duration.ofNanos(System.nanoTime() - startTime)));
+        } catch (IOException e) {
+            var exception = new UncheckedIOException(e);
+            failure = exception;
+            throw exception;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            if (directory != null) {
+                deleteDirectory(directory, failure);
+            }
+        }
+    }
+
+    private SolverResult finish(SolverResult result) {
+        metrics.finished(result);
+        return result;
+    }
+
+    /**
+     * Deletes the files of a search. If the search has failed, an error deleting them is added to
+     * its exception as a suppressed one, so the cause of the failure is not hidden.
+     *
+     * @param directory the directory of the search
+     * @param failure the exception the search has failed with, or {@code null} if it has succeeded
+     * @throws UncheckedIOException if the files cannot be deleted and the search has succeeded
+     */
+    static void deleteDirectory(Path directory, Throwable failure) {
+        try (var files = Files.list(directory)) {
+            for (var file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            if (failure == null) {
+                throw new UncheckedIOException(e);
+            }
+            failure.addSuppressed(e);
+        }
+    }
+
+    private final class Search {
+
+        private final Board board;
+        private final MoveGenerator moveGenerator;
+        private final Path directory;
+        private final List<Path> layers = new ArrayList<>();
+        private final List<Run> visited = new ArrayList<>();
+        private final BufferPool buffers = new BufferPool(bufferBytes);
+        private long nodesExpanded;
+        private int files;
+
+        private Search(Board board, Path directory) {
+            this.board = board;
+            this.moveGenerator = board.getMoveGenerator();
+            this.directory = directory;
+        }
+
+        private Path newFile(String prefix) {
+            return directory.resolve(String.format("%s-%06d.bin", prefix, files++));
+        }
+
+        /**
+         * Expands the layers one by one until a solved state is reached.
+         *
+         * @return a solved state in the last layer, or {@link #NONE} if there is none
+         */
+        private long run(long start) throws IOException {
+            var layer = newFile("layer");
+            try (var writer = new LongWriter(layer, buffers)) {
+                writer.write(start);
+            }
+            layers.add(layer);
+            visited.add(new Run(layer, 1, false));
+            long visitedStates = 1;
+            long layerSize = 1;
+            while (layerSize > 0) {
+                metrics.frontier(layerSize);
+                long generated = 0;
+                var runs = new ArrayList<Path>();
+                long[] buffer = new long[(int) Math.min(runLength, Math.max(16, layerSize * MoveGenerator.MAX_MOVES))];
+                int size = 0;
+                int[] moves = new int[MoveGenerator.MAX_MOVES];
+                try (var reader = new LongReader(layer, buffers)) {
+                    while (reader.hasNext()) {
+                        long state = reader.next();
+                        int count = moveGenerator.generate(state, moves);
+                        generated += count;
+                        for (int i = 0; i < count; i++) {
+                            if (size == buffer.length) {
+                                runs.add(writeRun(buffer, size));
+                                size = 0;
+                            }
+                            buffer[size++] = moveGenerator.apply(state, moves[i]);
+                        }
+                    }
+                }
+                runs.add(writeRun(buffer, size));
+                nodesExpanded += layerSize;
+                var successors = mergeRuns(runs);
+
+                var nextLayer = newFile("layer");
+                long goal = NONE;
+                long nextSize = 0;
+                var seen = new ArrayList<LongReader>(visited.size());
+                try (var candidates = new LongReader(successors, buffers);
+                     var layerWriter = new LongWriter(nextLayer, buffers)) {
+                    for (var run : visited) {
+                        seen.add(new LongReader(run.path(), buffers));
+                    }
+                    while (candidates.hasNext()) {
+                        long candidate = candidates.next();
+                        if (contains(seen, candidate)) {
+                            continue;
+                        }
+                        layerWriter.write(candidate);
+                        nextSize++;
+                        if (goal == NONE && board.isSolved(candidate)) {
+                            goal = candidate;
+                        }
+                    }
+                } finally {
+                    for (var reader : seen) {
+                        reader.close();
+                    }
+                }
+                Files.delete(successors);
+                metrics.expanded(layerSize, generated, generated - nextSize);
+                visitedStates += nextSize;
+                layers.add(nextLayer);
+                addVisited(new Run(nextLayer, nextSize, false));
+                layer = nextLayer;
+                layerSize = nextSize;
+                metrics.visited(visitedStates, 1, bytesOnDisk());
+                if (goal != NONE) {
+                    return goal;
+                }
+                metrics.startDepth(layers.size() - 1);
+            }
+            return NONE;
+        }
+
+        /**
+         * Checks whether a value is in one of the visited runs, given in increasing order of the
+         * values checked before.
+         */
+        private static boolean contains(List<LongReader> runs, long value) throws IOException {
+            for (var run : runs) {
+                run.skipTo(value);
+                if (run.hasNext() && run.peek() == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Adds a layer to the visited runs, merging the newest runs while the older one is at most
+         * twice as large as the newer one.
+         */
+        private void addVisited(Run run) throws IOException {
+            visited.add(run);
+            while (visited.size() > 1) {
+                var newer = visited.get(visited.size() - 1);
+                var older = visited.get(visited.size() - 2);
+                if (older.size() > 2 * newer.size()) {
+                    break;
+                }
+                var merged = new Run(merge(List.of(older.path(), newer.path())), older.size() + newer.size(), true);
+                for (var input : List.of(older, newer)) {
+                    if (input.merged()) {
+                        Files.delete(input.path());
+                    }
+                }
+                visited.subList(visited.size() - 2, visited.size()).clear();
+                visited.add(merged);
+            }
+        }
+
+        private long bytesOnDisk() throws IOException {
+            try (var list = Files.list(directory)) {
+                long bytes = 0;
+                for (var file : list.toList()) {
+                    bytes += Files.size(file);
+                }
+                return bytes;
+            }
+        }
+
+        private Path writeRun(long[] buffer, int size) throws IOException {
+            Arrays.sort(buffer, 0, size);
+            var run = newFile("run");
+            try (var writer = new LongWriter(run, buffers)) {
+                long previous = NONE;
+                for (int i = 0; i < size; i++) {
+                    if (buffer[i] != previous) {
+                        writer.write(buffer[i]);
+                        previous = buffer[i];
+                    }
+                }
+            }
+            return run;
+        }
+
+        /**
+         * Merges sorted runs into a single sorted run without duplicates, in passes of at most
+         * {@link #MAX_FAN_IN} runs, and deletes the merged runs.
+         */
+        private Path mergeRuns(List<Path> runs) throws IOException {
+            var remaining = new ArrayList<>(runs);
+            while (remaining.size() > 1) {
+                var merged = new ArrayList<Path>();
+                for (int from = 0; from < remaining.size(); from += MAX_FAN_IN) {
+                    var group = remaining.subList(from, Math.min(remaining.size(), from + MAX_FAN_IN));
+                    merged.add(merge(group));
+                    if (group.size() > 1) {
+                        for (var run : group) {
+                            Files.delete(run);
+                        }
+                    }
+                }
+                remaining = merged;
+            }
+            return remaining.get(0);
+        }
+
+        /**
+         * Merges sorted runs into a new sorted run without duplicates, keeping the merged runs.
+         * A single run is returned as it is.
+         */
+        private Path merge(List<Path> runs) throws IOException {
+            if (runs.size() == 1) {
+                return runs.get(0);
+            }
+            var output = newFile("run");
+            var readers = new ArrayList<LongReader>(runs.size());
+            try (var writer = new LongWriter(output, buffers)) {
+                var queue = new PriorityQueue<LongReader>(runs.size(), Comparator.comparingLong(LongReader::peek));
+                for (var run : runs) {
+                    var reader = new LongReader(run, buffers);
+                    readers.add(reader);
+                    if (reader.hasNext()) {
+                        queue.add(reader);
+                    }
+                }
+                long previous = NONE;
+                while (!queue.isEmpty()) {
+                    var reader = queue.poll();
+                    long value = reader.next();
+                    if (value != previous) {
+                        writer.write(value);
+                        previous = value;
+                    }
+                    if (reader.hasNext()) {
+                        queue.add(reader);
+                    }
+                }
+            } finally {
+                for (var reader : readers) {
+                    reader.close();
+                }
+            }
+            return output;
+        }
+
+        /**
+         * Reconstructs the path to a state of the last layer, looking up a predecessor of each
+         * state in the previous layer with a merge of the sorted predecessors and the layer file.
+         */
+        private long[] path(long goal) throws IOException {
+            int length = layers.size() - 1;
+            long[] path = new long[length + 1];
+            long[] predecessors = new long[moveGenerator.maxPredecessors()];
+            path[length] = goal;
+            for (int depth = length - 1; depth >= 0; depth--) {
+                int count = moveGenerator.predecessors(path[depth + 1], predecessors);
+                Arrays.sort(predecessors, 0, count);
+                long found = NONE;
+                try (var reader = new LongReader(layers.get(depth), buffers)) {
+                    int i = 0;
+                    while (found == NONE && i < count && reader.hasNext()) {
+                        long state = reader.peek();
+                        if (state < predecessors[i]) {
+                            reader.next();
+                        } else if (state > predecessors[i]) {
+                            i++;
+                        } else {
+                            found = state;
+                        }
+                    }
+                }
+                if (found == NONE) {
+                    throw new IllegalStateException("No predecessor in layer " + depth);
+                }
+                path[depth] = found;
+            }
+            return path;
+        }
+    }
+
+    /**
+     * A sorted file of visited states.
+     *
+     * @param path the path of the file
+     * @param size the number of states in the file
+     * @param merged whether the file was written by a merge, rather than being a layer
+     */
+    private record Run(Path path, long size, boolean merged) {
+    }
+
+    /**
+     * The direct buffers of the files of a search, reused by the files opened later instead of
+     * allocating new ones, since direct memory is only freed by the garbage collector.
+     */
+    private static final class BufferPool {
+
+        private final int bufferBytes;
+        private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+
+        private BufferPool(int bufferBytes) {
+            this.bufferBytes = bufferBytes;
+        }
+
+        private ByteBuffer acquire() {
+            var buffer = free.poll();
+            return buffer == null ? ByteBuffer.allocateDirect(bufferBytes) : buffer.clear();
+        }
+
+        private void release(ByteBuffer buffer) {
+            free.push(buffer);
+        }
+    }
+
+    /**
+     * Writes {@code long} values sequentially to a file through a pooled direct buffer.
+     */
+    private static final class LongWriter implements Closeable {
+
+        private final FileChannel channel;
+        private final BufferPool pool;
+        private final ByteBuffer buffer;
+
+        private LongWriter(Path path, BufferPool pool) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.pool = pool;
+            buffer = pool.acquire();
+        }
+
+        private void write(long value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putLong(value);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                pool.release(buffer);
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Reads {@code long} values sequentially from a file through a pooled direct buffer.
+     */
+    private static final class LongReader implements Closeable {
+
+        private final FileChannel channel;
+        private final BufferPool pool;
+        private final ByteBuffer buffer;
+        private final ByteBuffer probe = ByteBuffer.allocate(Long.BYTES);
+        private long current;
+        private boolean hasCurrent;
+
+        private LongReader(Path path, BufferPool pool) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.pool = pool;
+            buffer = pool.acquire();
+            buffer.flip();
+            try {
+                advance();
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private void advance() throws IOException {
+            if (buffer.remaining() < Long.BYTES) {
+                buffer.compact();
+                while (buffer.position() < Long.BYTES && channel.read(buffer) >= 0) {
+                    // read until at least one value is available or the end of the file is reached
+                }
+                buffer.flip();
+            }
+            hasCurrent = buffer.remaining() >= Long.BYTES;
+            if (hasCurrent) {
+                current = buffer.getLong();
+            }
+        }
+
+        private boolean hasNext() {
+            return hasCurrent;
+        }
+
+        private long peek() {
+            return current;
+        }
+
+        private long next() throws IOException {
+            long value = current;
+            advance();
+            return value;
+        }
+
+        /**
+         * Skips the values less than a target in a sorted file. If the buffer does not reach the
+         * target, the first value not less than it is found by a binary search in the rest of the file.
+         */
+        private void skipTo(long target) throws IOException {
+            if (!hasCurrent || current >= target) {
+                return;
+            }
+            int values = buffer.remaining() / Long.BYTES;
+            if (values > 0 && buffer.getLong(buffer.position() + (values - 1) * Long.BYTES) >= target) {
+                while (current < target) {
+                    advance();
+                }
+                return;
+            }
+            long low = (channel.position() - buffer.remaining()) / Long.BYTES + values;
+            long high = channel.size() / Long.BYTES;
+            while (low < high) {
+                long middle = (low + high) >>> 1;
+                if (valueAt(middle) < target) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            channel.position(low * Long.BYTES);
+            buffer.clear().flip();
+            advance();
+        }
+
+        private long valueAt(long index) throws IOException {
+            probe.clear();
+            while (probe.hasRemaining()) {
+                if (channel.read(probe, index * Long.BYTES + probe.position()) < 0) {
+                    throw new EOFException("Unexpected end of " + channel);
+                }
+            }
+            return probe.getLong(0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            pool.release(buffer);
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.MoveGenerator;
+import boardgame.model.Position;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Computes the next move of a shortest solution in the background.
+ * <p>
+ * A hint request is answered immediately if the state is found in the {@link DistanceDatabase}
+ * or the {@link SolveCache}. Otherwise a partial hint, the successor with the smallest
+ * {@link DistanceHeuristic} estimate, is delivered at once, and the exact hint follows when the
+ * solve running on a virtual thread finishes. A new request or {@link #cancel()} interrupts the
+ * running solve, and hints of stale requests are never delivered. Hints are passed to the
+ * callback through the callback executor, e.g. {@code Platform::runLater} for a JavaFX UI.
+ * With the default solver of the {@link SolveCache}, no hint leads into a state in which the game is
+ * {@linkplain Board#isLost(long) lost}.
+ */
+public final class HintEngine implements AutoCloseable {
+
+    /**
+     * A suggested move.
+     *
+     * @param state the packed state the hint was computed for
+     * @param move the encoded move as defined by {@link MoveGenerator}, or {@code -1} if there is none
+     * @param from the position the figure moves from, or {@code null} if there is no move
+     * @param to the position the figure moves to, or {@code null} if there is no move
+     * @param distance the number of moves left after the suggested move, {@code 0} if the state is solved,
+     *                 or {@link DistanceDatabase#UNSOLVABLE} if the state cannot be solved or the hint is partial
+     * @param exact whether the move belongs to a shortest solution
+     */
+    public record Hint(long state, int move, Position from, Position to, int distance, boolean exact) {
+
+        /**
+         * Checks whether the hint suggests a move.
+         *
+         * @return {@code true} if there is a move, {@code false} otherwise
+         */
+        public boolean hasMove() {
+            return move >= 0;
+        }
+    }
+
+    private final Board board;
+    private final SolveCache cache;
+    private final DistanceDatabase distances;
+    private final DistanceHeuristic heuristic;
+    private final Executor callbackExecutor;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private long generation;
+    private Future<?> running;
+
+    /**
+     * Creates a hint engine.
+     *
+     * @param cache the solve cache of the board, shared with other games
+     * @param distances the distance database of the board, or {@code null} if there is none
+     * @param callbackExecutor the executor the hint callbacks are run by
+     */
+    public HintEngine(SolveCache cache, DistanceDatabase distances, Executor callbackExecutor) {
+        this.board = cache.getBoard();
+        this.cache = cache;
+        this.distances = distances;
+        this.heuristic = new DistanceHeuristic(board, true);
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Requests a hint for a packed state, cancelling the previous request.
+     *
+     * @param state the packed state
+     * @param callback the consumer of the hints, which may be called twice: with a partial
+     *                 hint first, and the exact hint later
+     */
+    public void requestHint(long state, Consumer<Hint> callback) {
+        long request;
+        synchronized (this) {
+            cancelRunning();
+            request = ++generation;
+        }
+        if (distances != null) {
+            deliver(request, callback, exactHint(state, distances.bestMove(state), distances.distance(state)));
+            return;
+        }
+        var cached = cache.lookup(state);
+        if (cached != null) {
+            deliver(request, callback, exactHint(state, cached.move(), cached.distance()));
+            return;
+        }
+        deliver(request, callback, partialHint(state));
+        synchronized (this) {
+            if (request != generation) {
+                return;
+            }
+            running = executor.submit(() -> {
+                try {
+                    var entry = cache.get(state);
+                    deliver(request, callback, exactHint(state, entry.move(), entry.distance()));
+                } catch (CancellationException e) {
+                    // a newer request replaced this one
+                }
+            });
+        }
+    }
+
+    /**
+     * Cancels the running request, so none of its hints will be delivered.
+     */
+    public synchronized void cancel() {
+        cancelRunning();
+        generation++;
+    }
+
+    /**
+     * Cancels the running request and stops the background threads.
+     */
+    @Override
+    public synchronized void close() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    private void cancelRunning() {
+        if (running != null) {
+            running.cancel(true);
+            running = null;
+        }
+    }
+
+    private void deliver(long request, Consumer<Hint> callback, Hint hint) {
+        callbackExecutor.execute(() -> {
+            synchronized (this) {
+                if (request != generation) {
+                    return;
+                }
+            }
+            callback.accept(hint);
+        });
+    }
+
+    private Hint partialHint(long state) {
+        var moveGenerator = board.getMoveGenerator();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = moveGenerator.generate(state, moves);
+        int best = -1;
+        int bestEstimate = DistanceHeuristic.UNREACHABLE;
+        for (int i = 0; i < count; i++) {
+            int estimate = heuristic.estimate(moveGenerator.apply(state, moves[i]));
+            if (estimate < bestEstimate) {
+                best = moves[i];
+                bestEstimate = estimate;
+            }
+        }
+        return hint(state, best, DistanceDatabase.UNSOLVABLE, false);
+    }
+
+    private Hint exactHint(long state, int move, int distance) {
+        if (distance == DistanceDatabase.UNSOLVABLE || move < 0) {
+            return hint(state, -1, distance, true);
+        }
+        return hint(state, move, distance - 1, true);
+    }
+
+    private Hint hint(long state, int move, int distance, boolean exact) {
+        if (move < 0) {
+            return new Hint(state, -1, null, null, distance, exact);
+        }
+        var twoPhaseMove = board.moveOf(state, move);
+        return new Hint(state, move, twoPhaseMove.from(), twoPhaseMove.to(), distance, exact);
+    }
+}
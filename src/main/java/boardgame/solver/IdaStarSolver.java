@@ -0,0 +1,137 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.MoveGenerator;
+import boardgame.model.SearchState;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Iterative deepening A* search over packed states guided by a {@link DistanceHeuristic}.
+ * <p>
+ * Depth-first searches are repeated with an increasing bound on the estimated solution length,
+ * so the memory used is proportional to the length of the solution only. The search walks the
+ * game tree in place on a {@link SearchState}, so no objects are created per node. States already
+ * on the current path are not revisited. Searching stops when no state exceeds the bound or the bound
+ * passes the maximum depth, in which case the state is reported unsolvable.
+ */
+public class IdaStarSolver implements Solver {
+
+    private static final int FOUND = -1;
+
+    private final int maxDepth;
+    private final SearchMetrics metrics;
+
+    /**
+     * Creates a solver without a depth limit. Since only cycles on the current path are pruned,
+     * proving an unsolvable start state with a finite estimate may take exponential time, so
+     * such states should be ruled out beforehand, e.g. by a {@link boardgame.model.DeadStateDetector}.
+     */
+    public IdaStarSolver() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a solver giving up on solutions longer than {@code maxDepth} moves.
+     *
+     * @param maxDepth the maximum length of a solution
+     */
+    public IdaStarSolver(int maxDepth) {
+        this(maxDepth, SearchMetrics.NONE);
+    }
+
+    /**
+     * Creates a solver giving up on solutions longer than {@code maxDepth} moves and reporting
+     * to the given metrics. The depth of the search is the bound of the current iteration, and
+     * the successors already on the current path are counted as duplicates.
+     *
+     * @param maxDepth the maximum length of a solution
+     * @param metrics the receiver of the measurements of the searches
+     */
+    public IdaStarSolver(int maxDepth, SearchMetrics metrics) {
+        this.maxDepth = maxDepth;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SolverResult solve(Board board, long start) {
+        long startTime = System.nanoTime();
+        var search = new Search(new SearchState(board, start), metrics);
+        int bound = search.heuristic.estimate(start);
+        while (bound != DistanceHeuristic.UNREACHABLE && bound <= maxDepth) {
+            metrics.startDepth(bound);
+            int result = search.search(bound);
+            if (result == FOUND) {
+                return finish(SolverResult.solved(board, search.state.path(), search.nodesExpanded,
+                        Duration.ofNanos(System.nanoTime() - startTime)));
+            }
+            bound = result;
+        }
+        return finish(SolverResult.unsolvable(search.nodesExpanded, Duration.ofNanos(System.nanoTime() - startTime)));
+    }
+
+    private SolverResult finish(SolverResult result) {
+        metrics.finished(result);
+        return result;
+    }
+
+    private static final class Search {
+
+        private final SearchState state;
+        private final DistanceHeuristic heuristic;
+        private final SearchMetrics metrics;
+        private int[][] moves = new int[64][MoveGenerator.MAX_MOVES];
+        private long nodesExpanded;
+
+        private Search(SearchState state, SearchMetrics metrics) {
+            this.state = state;
+            this.heuristic = new DistanceHeuristic(state.getBoard());
+            this.metrics = metrics;
+        }
+
+        /**
+         * Searches below the current state, making and unmaking moves in place.
+         *
+         * @return {@link #FOUND}, or the smallest estimated length exceeding the bound
+         */
+        private int search(int bound) {
+            int depth = state.getDepth();
+            int estimate = depth + heuristic.estimate(state.getState());
+            if (estimate > bound) {
+                return estimate;
+            }
+            if (state.isSolved()) {
+                return FOUND;
+            }
+            if (depth == moves.length) {
+                moves = Arrays.copyOf(moves, depth * 2);
+                for (int i = depth; i < moves.length; i++) {
+                    moves[i] = new int[MoveGenerator.MAX_MOVES];
+                }
+            }
+            nodesExpanded++;
+            int[] buffer = moves[depth];
+            int count = state.generateMoves(buffer);
+            int min = DistanceHeuristic.UNREACHABLE;
+            var moveGenerator = state.getBoard().getMoveGenerator();
+            int duplicates = 0;
+            for (int i = 0; i < count; i++) {
+                if (state.isOnPath(moveGenerator.apply(state.getState(), buffer[i]))) {
+                    duplicates++;
+                    continue;
+                }
+                state.makeMove(buffer[i]);
+                int result = search(bound);
+                if (result == FOUND) {
+                    metrics.expanded(1, i + 1, duplicates);
+                    return FOUND;
+                }
+                state.unmakeMove();
+                min = Math.min(min, result);
+            }
+            metrics.expanded(1, count, duplicates);
+            return min;
+        }
+    }
+}
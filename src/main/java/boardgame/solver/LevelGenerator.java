@@ -0,0 +1,197 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Generates random boards whose shortest solution is in a difficulty band.
+ * <p>
+ * Candidate boards are created with {@link Board#generate(int, int, int, long)} from the
+ * seeds {@code seed, seed + 1, ...} and solved from their start state. The candidates are
+ * evaluated in rounds of {@link #CANDIDATES_PER_THREAD} candidates per thread on a fixed
+ * thread pool, and a round is always evaluated completely, so the generated levels are the
+ * first matching candidates in seed order, whatever the number of threads.
+ */
+public final class LevelGenerator {
+
+    /**
+     * The number of candidates evaluated by each thread in a round.
+     */
+    public static final int CANDIDATES_PER_THREAD = 16;
+
+    /**
+     * A generated level.
+     *
+     * @param board the board of the level
+     * @param seed the seed the board was generated from
+     * @param length the number of moves of a shortest solution
+     */
+    public record Level(Board board, long seed, int length) {
+    }
+
+    /**
+     * The outcome of a generation.
+     *
+     * @param levels the generated levels, in seed order
+     * @param tested the number of candidate boards solved
+     * @param solvable the number of solvable candidate boards
+     * @param elapsed the time the generation took
+     */
+    public record Report(List<Level> levels, long tested, long solvable, Duration elapsed) {
+
+        /**
+         * Returns the number of candidate boards solved per second.
+         *
+         * @return the throughput of the generation
+         */
+        public double boardsPerSecond() {
+            return elapsed.isZero() ? 0 : tested * 1_000_000_000.0 / elapsed.toNanos();
+        }
+    }
+
+    private final int rows;
+    private final int columns;
+    private final int maxStep;
+    private final int minLength;
+    private final int maxLength;
+    private final Supplier<Solver> solverFactory;
+
+    /**
+     * Creates a level generator using a {@link BidirectionalSolver}.
+     *
+     * @param rows the number of rows of the boards
+     * @param columns the number of columns of the boards
+     * @param maxStep the largest step value of a cell
+     * @param minLength the smallest accepted solution length
+     * @param maxLength the largest accepted solution length
+     */
+    public LevelGenerator(int rows, int columns, int maxStep, int minLength, int maxLength) {
+        this(rows, columns, maxStep, minLength, maxLength, BidirectionalSolver::new);
+    }
+
+    /**
+     * Creates a level generator.
+     *
+     * @param rows the number of rows of the boards
+     * @param columns the number of columns of the boards
+     * @param maxStep the largest step value of a cell
+     * @param minLength the smallest accepted solution length
+     * @param maxLength the largest accepted solution length
+     * @param solverFactory creates the solver of each candidate
+     */
+    public LevelGenerator(int rows, int columns, int maxStep, int minLength, int maxLength,
+                          Supplier<Solver> solverFactory) {
+        if (minLength < 0 || minLength > maxLength) {
+            throw new IllegalArgumentException("Invalid difficulty band: " + minLength + ".." + maxLength);
+        }
+        if (maxStep < 1) {
+            throw new IllegalArgumentException("The largest step must be positive!");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.maxStep = maxStep;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.solverFactory = solverFactory;
+    }
+
+    /**
+     * Generates levels until enough are found or the candidates run out.
+     *
+     * @param count the number of levels to generate
+     * @param seed the seed of the first candidate
+     * @param maxCandidates the largest number of candidates to evaluate
+     * @param threads the number of threads evaluating candidates
+     * @return the {@link Report} of the generation, holding at most {@code count} levels
+     * @throws InterruptedException if the thread is interrupted while waiting for the candidates
+     */
+    public Report generate(int count, long seed, long maxCandidates, int threads) throws InterruptedException {
+        long startTime = System.nanoTime();
+        var levels = new ArrayList<Level>();
+        long tested = 0;
+        long solvable = 0;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            int roundSize = threads * CANDIDATES_PER_THREAD;
+            while (levels.size() < count && tested < maxCandidates) {
+                var candidates = new ArrayList<Callable<SolverResult>>();
+                long first = seed + tested;
+                for (long i = 0; i < Math.min(roundSize, maxCandidates - tested); i++) {
+                    long candidateSeed = first + i;
+                    candidates.add(() -> solve(candidateSeed));
+                }
+                var results = executor.invokeAll(candidates);
+                for (int i = 0; i < results.size(); i++) {
+                    var result = results.get(i).get();
+                    tested++;
+                    if (result.solvable()) {
+                        solvable++;
+                        int length = result.length();
+                        if (length >= minLength && length <= maxLength && levels.size() < count) {
+                            levels.add(new Level(candidate(first + i), first + i, length));
+                        }
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Report(List.copyOf(levels), tested, solvable, Duration.ofNanos(System.nanoTime() - startTime));
+    }
+
+    private Board candidate(long seed) {
+        return Board.generate(rows, columns, maxStep, seed);
+    }
+
+    private SolverResult solve(long seed) {
+        var board = candidate(seed);
+        return solverFactory.get().solve(board, board.startState());
+    }
+
+    /**
+     * Generates levels from the command line and saves them as board files.
+     * <p>
+     * Usage: {@code LevelGenerator rows columns maxStep minLength maxLength count [directory [seed]]}.
+     * The levels are written to {@code level-001.txt}, {@code level-002.txt}, ... in the directory,
+     * which defaults to the working directory.
+     *
+     * @param args the command line arguments
+     * @throws IOException if a level cannot be saved
+     * @throws InterruptedException if the thread is interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 6) {
+            System.err.println("Usage: LevelGenerator rows columns maxStep minLength maxLength count [directory [seed]]");
+            System.exit(1);
+        }
+        var generator = new LevelGenerator(Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+                Integer.parseInt(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+        int count = Integer.parseInt(args[5]);
+        var directory = Path.of(args.length > 6 ? args[6] : "");
+        long seed = args.length > 7 ? Long.parseLong(args[7]) : System.nanoTime();
+        var report = generator.generate(count, seed, Long.MAX_VALUE, Runtime.getRuntime().availableProcessors());
+        Files.createDirectories(directory.toAbsolutePath());
+        for (int i = 0; i < report.levels().size(); i++) {
+            var level = report.levels().get(i);
+            var path = directory.resolve(String.format("level-%03d.txt", i + 1));
+            level.board().save(path);
+            Logger.info("Saved {} with a {}-move solution (seed {})", path, level.length(), level.seed());
+        }
+        System.out.printf("Tested %d boards (%d solvable) in %d ms, %.1f boards/s%n", report.tested(),
+                report.solvable(), report.elapsed().toMillis(), report.boardsPerSecond());
+    }
+}
@@ -0,0 +1,276 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.MoveGenerator;
+import boardgame.model.PackedState;
+import boardgame.util.LongLongHashMap;
+import boardgame.util.OffHeapBitArray;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Breadth-first search keeping three bits per state of the board off the Java heap.
+ * <p>
+ * Every state of the board has a slot in two {@link OffHeapBitArray}s, indexed by
+ * {@link PackedState#index(long, int)}. The first one holds two bits
+ * per state, {@code 0} for unvisited states and {@code 1 + depth % 3} for visited ones, and the
+ * second one a bit per state marking the frontier. The states of a level are found by scanning
+ * the frontier bits, 64 states per word, so neither a frontier queue nor parent links are stored,
+ * and a search over billions of states fits into a few gigabytes. The solution is reconstructed
+ * backward from the solved state, following predecessors with the code of the previous depth and
+ * backtracking from those that do not lead to the start.
+ * <p>
+ * The arrays are allocated in native memory if they fit into the memory budget, otherwise they
+ * are mapped from temporary files in the spill directory. Either way they are released as soon as
+ * the search finishes, not when they are garbage collected.
+ */
+public class OffHeapBreadthFirstSolver implements Solver {
+
+    /**
+     * The default amount of direct memory a search may use.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 1L << 30;
+
+    private static final int UNVISITED = 0;
+
+    private final long memoryBudget;
+    private final Path spillDirectory;
+    private final SearchMetrics metrics;
+
+    /**
+     * Creates a solver with the {@link #DEFAULT_MEMORY_BUDGET} and no spill directory.
+     */
+    public OffHeapBreadthFirstSolver() {
+        this(DEFAULT_MEMORY_BUDGET, null);
+    }
+
+    /**
+     * Creates a solver with the given memory budget.
+     *
+     * @param memoryBudget the largest number of bytes of direct memory a search may use
+     * @param spillDirectory the directory of the mapped file used by searches exceeding the budget,
+     *                       or {@code null} to reject such searches
+     */
+    public OffHeapBreadthFirstSolver(long memoryBudget, Path spillDirectory) {
+        this(memoryBudget, spillDirectory, SearchMetrics.NONE);
+    }
+
+    /**
+     * Creates a solver with the given memory budget reporting to the given metrics.
+     *
+     * @param memoryBudget the largest number of bytes of direct memory a search may use
+     * @param spillDirectory the directory of the mapped file used by searches exceeding the budget,
+     *                       or {@code null} to reject such searches
+     * @param metrics the receiver of the measurements of the searches
+     */
+    public OffHeapBreadthFirstSolver(long memoryBudget, Path spillDirectory, SearchMetrics metrics) {
+        this.memoryBudget = memoryBudget;
+        this.spillDirectory = spillDirectory;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the number of states of a board.
+     *
+     * @param board the board of the game
+     * @return the number of packed states
+     * @see PackedState#states(Board)
+     */
+    public static long states(Board board) {
+        return PackedState.states(board);
+    }
+
+    /**
+     * Returns the number of bytes a search on a board needs.
+     *
+     * @param board the board of the game
+     * @return the size of the arrays of the search in bytes
+     */
+    public static long bytesRequired(Board board) {
+        return OffHeapBitArray.bytesRequired(states(board), 2) + OffHeapBitArray.bytesRequired(states(board), 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the search exceeds the memory budget and there is no spill directory
+     * @throws UncheckedIOException if the spill file cannot be created
+     */
+    @Override
+    public SolverResult solve(Board board, long start) {
+        long startTime = System.nanoTime();
+        metrics.startDepth(0);
+        if (board.isSolved(start)) {
+            return finish(SolverResult.solved(board, new long[]{start}, 0, Duration.ofNanos(System.nanoTime() - startTime)));
+        }
+        try (var depths = allocate(board, 2); var frontier = allocate(board, 1)) {
+            var search = new Search(board, depths, frontier);
+            long goal = search.run(start);
+            metrics.visited(search.visitedStates, (double) search.visitedStates / depths.length(),
+                    depths.bytesUsed() + frontier.bytesUsed());
+            var elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+            if (goal == -1) {
+                return finish(SolverResult.unsolvable(search.nodesExpanded, elapsed));
+            }
+            long[] path = search.path(start, goal);
+            return finish(SolverResult.solved(board, path, search.nodesExpanded,
+                    Duration.ofNanos(System.nanoTime() - startTime)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private OffHeapBitArray allocate(Board board, int bitsPerValue) throws IOException {
+        long bytes = bytesRequired(board);
+        if (bytes <= memoryBudget) {
+            return OffHeapBitArray.allocateDirect(states(board), bitsPerValue);
+        }
+        if (spillDirectory == null) {
+            throw new IllegalArgumentException(String.format("A search on %s needs %d bytes, exceeding the budget of %d bytes",
+                    board, bytes, memoryBudget));
+        }
+        return OffHeapBitArray.map(states(board), bitsPerValue, spillDirectory);
+    }
+
+    private SolverResult finish(SolverResult result) {
+        metrics.finished(result);
+        return result;
+    }
+
+    private static int code(int depth) {
+        return depth % 3 + 1;
+    }
+
+    private final class Search {
+
+        private final Board board;
+        private final OffHeapBitArray depths;
+        private final OffHeapBitArray frontier;
+        private final MoveGenerator moveGenerator;
+        private final int cells;
+        private long nodesExpanded;
+        private long visitedStates;
+        private int depth;
+
+        private Search(Board board, OffHeapBitArray depths, OffHeapBitArray frontier) {
+            this.board = board;
+            this.depths = depths;
+            this.frontier = frontier;
+            this.moveGenerator = board.getMoveGenerator();
+            this.cells = board.getCells();
+        }
+
+        /**
+         * Expands the levels of the search one by one until a solved state is reached.
+         *
+         * @return the solved state, at depth {@link #depth}, or {@code -1} if there is none
+         */
+        private long run(long start) {
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            depths.set(index(start), code(0));
+            frontier.set(index(start), 1);
+            visitedStates = 1;
+            long levelSize = 1;
+            while (levelSize > 0) {
+                metrics.frontier(levelSize);
+                int current = code(depth);
+                int next = code(depth + 1);
+                long nextSize = 0;
+                long expanded = 0;
+                long generated = 0;
+                long duplicates = 0;
+                long words = frontier.words();
+                for (long word = 0; word < words; word++) {
+                    long bits = frontier.getWord(word);
+                    while (bits != 0) {
+                        long index = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        if (depths.get(index) != current) {
+                            continue;
+                        }
+                        frontier.set(index, 0);
+                        long state = state(index);
+                        expanded++;
+                        int count = moveGenerator.generate(state, moves);
+                        for (int i = 0; i < count; i++) {
+                            long successor = moveGenerator.apply(state, moves[i]);
+                            long successorIndex = index(successor);
+                            generated++;
+                            if (depths.get(successorIndex) != UNVISITED) {
+                                duplicates++;
+                            } else {
+                                depths.set(successorIndex, next);
+                                frontier.set(successorIndex, 1);
+                                visitedStates++;
+                                nextSize++;
+                                if (board.isSolved(successor)) {
+                                    nodesExpanded += expanded;
+                                    metrics.expanded(expanded, generated, duplicates);
+                                    depth++;
+                                    return successor;
+                                }
+                            }
+                        }
+                    }
+                }
+                nodesExpanded += expanded;
+                metrics.expanded(expanded, generated, duplicates);
+                metrics.startDepth(++depth);
+                levelSize = nextSize;
+            }
+            return -1;
+        }
+
+        /**
+         * Reconstructs a path of {@link #depth} moves from the start state to a solved state.
+         * A predecessor with the code of the previous depth may actually lie three or more levels
+         * deeper, so predecessors not leading back to the start are skipped, and the states found
+         * to be such dead ends at a given depth are remembered.
+         */
+        private long[] path(long start, long goal) {
+            int length = depth;
+            long[] path = new long[length + 1];
+            long[][] predecessors = new long[length + 1][moveGenerator.maxPredecessors()];
+            int[] counts = new int[length + 1];
+            int[] next = new int[length + 1];
+            var deadEnds = new LongLongHashMap(16);
+            path[length] = goal;
+            counts[length] = moveGenerator.predecessors(goal, predecessors[length]);
+            int d = length;
+            while (d > 0) {
+                long candidate = -1;
+                while (next[d] < counts[d]) {
+                    long predecessor = predecessors[d][next[d]++];
+                    if (depths.get(index(predecessor)) == code(d - 1)
+                            && deadEnds.get(predecessor, -1) != d - 1
+                            && (d > 1 || predecessor == start)) {
+                        candidate = predecessor;
+                        break;
+                    }
+                }
+                if (candidate == -1) {
+                    deadEnds.put(path[d], d);
+                    if (++d > length) {
+                        throw new IllegalStateException("No path to the solved state");
+                    }
+                    continue;
+                }
+                path[--d] = candidate;
+                counts[d] = d == 0 ? 0 : moveGenerator.predecessors(candidate, predecessors[d]);
+                next[d] = 0;
+            }
+            return path;
+        }
+
+        private long index(long state) {
+            return PackedState.index(state, cells);
+        }
+
+        private long state(long index) {
+            return PackedState.fromIndex(index, cells);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.MoveGenerator;
+import boardgame.util.ConcurrentLongLongHashMap;
+import boardgame.util.LongQueue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Level-synchronous parallel breadth-first search over packed states.
+ * <p>
+ * Each level of the search is split into chunks expanded by the threads of a {@link ForkJoinPool}.
+ * Visited states and their parents are stored in a striped concurrent map, so the first thread
+ * reaching a state becomes its parent. Since a level is only expanded after the previous one is
+ * complete, the solution found has the same length as the one of {@link BreadthFirstSolver}.
+ */
+public class ParallelBreadthFirstSolver implements Solver {
+
+    private static final long NO_PARENT = -1;
+    private static final int MIN_CHUNK_SIZE = 1 << 10;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final int threads;
+    private final SearchMetrics metrics;
+
+    /**
+     * The successors found by expanding a chunk of a level.
+     */
+    private record Chunk(LongQueue next, long generated) {
+    }
+
+    /**
+     * Creates a solver using all available processors.
+     */
+    public ParallelBreadthFirstSolver() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a solver using the given number of threads.
+     *
+     * @param threads the number of threads expanding the levels
+     */
+    public ParallelBreadthFirstSolver(int threads) {
+        this(threads, SearchMetrics.NONE);
+    }
+
+    /**
+     * Creates a solver using the given number of threads and reporting to the given metrics.
+     * The measurements are reported once per level from the thread calling {@link #solve},
+     * so the metrics need not be thread-safe.
+     *
+     * @param threads the number of threads expanding the levels
+     * @param metrics the receiver of the measurements of the searches
+     */
+    public ParallelBreadthFirstSolver(int threads, SearchMetrics metrics) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive!");
+        }
+        this.threads = threads;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the number of threads used by the solver.
+     *
+     * @return the number of threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public SolverResult solve(Board board, long start) {
+        long startTime = System.nanoTime();
+        metrics.startDepth(0);
+        if (board.isSolved(start)) {
+            return finish(SolverResult.solved(board, new long[]{start}, 0, Duration.ofNanos(System.nanoTime() - startTime)));
+        }
+        var parents = new ConcurrentLongLongHashMap(threads * 64, 1 << 12);
+        var goal = new AtomicLong(NO_PARENT);
+        parents.putIfAbsent(start, NO_PARENT);
+        long[] level = {start};
+        long nodesExpanded = 0;
+        int depth = 0;
+        var pool = new ForkJoinPool(threads);
+        try {
+            while (level.length > 0 && goal.get() == NO_PARENT) {
+                nodesExpanded += level.length;
+                level = expandLevel(pool, board, level, parents, goal);
+                metrics.startDepth(++depth);
+                metrics.frontier(level.length);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        metrics.visited(parents.size(), parents.loadFactor(), parents.bytesUsed());
+        var elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+        if (goal.get() == NO_PARENT) {
+            return finish(SolverResult.unsolvable(nodesExpanded, elapsed));
+        }
+        return finish(SolverResult.solved(board, path(parents, goal.get()), nodesExpanded, elapsed));
+    }
+
+    private SolverResult finish(SolverResult result) {
+        metrics.finished(result);
+        return result;
+    }
+
+    private long[] expandLevel(ForkJoinPool pool, Board board, long[] level,
+                               ConcurrentLongLongHashMap parents, AtomicLong goal) {
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, level.length / (threads * CHUNKS_PER_THREAD) + 1);
+        var tasks = new ArrayList<Callable<Chunk>>();
+        for (int from = 0; from < level.length; from += chunkSize) {
+            int chunkStart = from;
+            int chunkEnd = Math.min(level.length, from + chunkSize);
+            tasks.add(() -> expandChunk(board, level, chunkStart, chunkEnd, parents, goal));
+        }
+        List<Future<Chunk>> results = pool.invokeAll(tasks);
+        var chunks = new ArrayList<LongQueue>(results.size());
+        int size = 0;
+        long generated = 0;
+        for (var result : results) {
+            try {
+                var chunk = result.get();
+                chunks.add(chunk.next());
+                size += chunk.next().size();
+                generated += chunk.generated();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        metrics.expanded(level.length, generated, generated - size);
+        long[] next = new long[size];
+        int index = 0;
+        for (var chunk : chunks) {
+            while (!chunk.isEmpty()) {
+                next[index++] = chunk.poll();
+            }
+        }
+        return next;
+    }
+
+    private static Chunk expandChunk(Board board, long[] level, int from, int to,
+                                         ConcurrentLongLongHashMap parents, AtomicLong goal) {
+        var moveGenerator = board.getMoveGenerator();
+        var next = new LongQueue(Math.max(16, (to - from) * 2));
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        long generated = 0;
+        for (int i = from; i < to && goal.get() == NO_PARENT; i++) {
+            long state = level[i];
+            int count = moveGenerator.generate(state, moves);
+            generated += count;
+            for (int j = 0; j < count; j++) {
+                long successor = moveGenerator.apply(state, moves[j]);
+                if (parents.putIfAbsent(successor, state)) {
+                    if (board.isSolved(successor)) {
+                        goal.compareAndSet(NO_PARENT, successor);
+                    }
+                    next.add(successor);
+                }
+            }
+        }
+        return new Chunk(next, generated);
+    }
+
+    private static long[] path(ConcurrentLongLongHashMap parents, long state) {
+        int length = 0;
+        for (long s = state; s != NO_PARENT; s = parents.get(s, NO_PARENT)) {
+            length++;
+        }
+        long[] path = new long[length];
+        for (long s = state; s != NO_PARENT; s = parents.get(s, NO_PARENT)) {
+            path[--length] = s;
+        }
+        return path;
+    }
+}
@@ -0,0 +1,63 @@
+package boardgame.solver;
+
+/**
+ * Receives measurements from the solvers while they search.
+ * <p>
+ * Every method has an empty default implementation, and solvers created without metrics
+ * report to {@link #NONE}. As that is then the only implementation seen at the call sites,
+ * the calls are inlined and removed by the JIT compiler, so instrumentation costs nothing
+ * when it is turned off. Use {@link SearchStatistics} to collect the measurements.
+ */
+public interface SearchMetrics {
+
+    /**
+     * Metrics discarding every measurement.
+     */
+    SearchMetrics NONE = new SearchMetrics() {
+    };
+
+    /**
+     * Called when the search starts a new depth: a level of a breadth-first search, or a new
+     * bound of an informed search.
+     *
+     * @param depth the depth, or the bound on the solution length
+     */
+    default void startDepth(int depth) {
+    }
+
+    /**
+     * Called when states have been expanded.
+     *
+     * @param nodes the number of states expanded
+     * @param generated the number of successors generated
+     * @param duplicates the number of successors pruned because they were already visited
+     */
+    default void expanded(long nodes, long generated, long duplicates) {
+    }
+
+    /**
+     * Called with the current number of states waiting to be expanded.
+     *
+     * @param size the size of the frontier or open list
+     */
+    default void frontier(long size) {
+    }
+
+    /**
+     * Called with the current size of the visited set.
+     *
+     * @param states the number of visited states
+     * @param loadFactor the load factor of the hash table holding them
+     * @param bytesUsed the number of bytes used by the data structures of the search
+     */
+    default void visited(long states, double loadFactor, long bytesUsed) {
+    }
+
+    /**
+     * Called when the search is finished.
+     *
+     * @param result the result of the search
+     */
+    default void finished(SolverResult result) {
+    }
+}
@@ -0,0 +1,263 @@
+package boardgame.solver;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * {@link SearchMetrics} collecting the measurements of the searches it is passed to.
+ * <p>
+ * Counters are summed over all searches since the statistics were created or {@link #reset()},
+ * while sizes keep their peak value. The time spent at each depth is summed per depth. The
+ * statistics can be exported as a JSON report or written to the log. They are not thread-safe,
+ * so a solver instrumented with them must not run several searches at the same time.
+ */
+public final class SearchStatistics implements SearchMetrics {
+
+    private static final JsonFactory JSON = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private long searches;
+    private long solved;
+    private long nodesExpanded;
+    private long generated;
+    private long duplicates;
+    private long peakFrontier;
+    private long peakVisited;
+    private double peakLoadFactor;
+    private long peakBytesUsed;
+    private long elapsedNanos;
+    private long[] depthNanos = new long[16];
+    private int maxDepth = -1;
+    private int currentDepth = -1;
+    private long depthStart;
+
+    @Override
+    public void startDepth(int depth) {
+        long now = System.nanoTime();
+        endDepth(now);
+        currentDepth = depth;
+        depthStart = now;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    private void endDepth(long now) {
+        if (currentDepth >= 0) {
+            if (currentDepth >= depthNanos.length) {
+                depthNanos = Arrays.copyOf(depthNanos, Math.max(depthNanos.length * 2, currentDepth + 1));
+            }
+            depthNanos[currentDepth] += now - depthStart;
+            currentDepth = -1;
+        }
+    }
+
+    @Override
+    public void expanded(long nodes, long generated, long duplicates) {
+        this.nodesExpanded += nodes;
+        this.generated += generated;
+        this.duplicates += duplicates;
+    }
+
+    @Override
+    public void frontier(long size) {
+        peakFrontier = Math.max(peakFrontier, size);
+    }
+
+    @Override
+    public void visited(long states, double loadFactor, long bytesUsed) {
+        peakVisited = Math.max(peakVisited, states);
+        peakLoadFactor = Math.max(peakLoadFactor, loadFactor);
+        peakBytesUsed = Math.max(peakBytesUsed, bytesUsed);
+    }
+
+    @Override
+    public void finished(SolverResult result) {
+        endDepth(System.nanoTime());
+        searches++;
+        if (result.solvable()) {
+            solved++;
+        }
+        elapsedNanos += result.elapsed().toNanos();
+    }
+
+    /**
+     * Discards every measurement.
+     */
+    public void reset() {
+        searches = solved = nodesExpanded = generated = duplicates = 0;
+        peakFrontier = peakVisited = peakBytesUsed = elapsedNanos = 0;
+        peakLoadFactor = 0;
+        Arrays.fill(depthNanos, 0);
+        maxDepth = currentDepth = -1;
+    }
+
+    /**
+     * Returns the number of finished searches.
+     *
+     * @return the number of searches
+     */
+    public long getSearches() {
+        return searches;
+    }
+
+    /**
+     * Returns the number of searches that found a solution.
+     *
+     * @return the number of solved searches
+     */
+    public long getSolved() {
+        return solved;
+    }
+
+    /**
+     * Returns the number of expanded states.
+     *
+     * @return the number of expanded states
+     */
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * Returns the number of generated successors.
+     *
+     * @return the number of generated successors
+     */
+    public long getGenerated() {
+        return generated;
+    }
+
+    /**
+     * Returns the number of successors pruned because they were already visited.
+     *
+     * @return the number of duplicates
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Returns the largest frontier of the searches.
+     *
+     * @return the peak frontier size
+     */
+    public long getPeakFrontier() {
+        return peakFrontier;
+    }
+
+    /**
+     * Returns the largest visited set of the searches.
+     *
+     * @return the peak number of visited states
+     */
+    public long getPeakVisited() {
+        return peakVisited;
+    }
+
+    /**
+     * Returns the largest load factor of the hash tables of the searches.
+     *
+     * @return the peak load factor
+     */
+    public double getPeakLoadFactor() {
+        return peakLoadFactor;
+    }
+
+    /**
+     * Returns the largest number of bytes used by the data structures of the searches.
+     *
+     * @return the peak number of bytes used
+     */
+    public long getPeakBytesUsed() {
+        return peakBytesUsed;
+    }
+
+    /**
+     * Returns the total time of the searches.
+     *
+     * @return the elapsed time
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    /**
+     * Returns the time spent at each depth.
+     *
+     * @return the time spent at depth {@code i} at index {@code i}, up to the deepest depth reached
+     */
+    public Duration[] getTimePerDepth() {
+        var times = new Duration[maxDepth + 1];
+        for (int depth = 0; depth < times.length; depth++) {
+            times[depth] = Duration.ofNanos(depth < depthNanos.length ? depthNanos[depth] : 0);
+        }
+        return times;
+    }
+
+    /**
+     * Writes the statistics as a JSON object. The writer is flushed but left open.
+     *
+     * @param writer the destination of the report
+     * @throws IOException if writing fails
+     */
+    public void writeJson(Writer writer) throws IOException {
+        try (var generator = JSON.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeNumberField("searches", searches);
+            generator.writeNumberField("solved", solved);
+            generator.writeNumberField("nodesExpanded", nodesExpanded);
+            generator.writeNumberField("generated", generated);
+            generator.writeNumberField("duplicates", duplicates);
+            generator.writeNumberField("peakFrontier", peakFrontier);
+            generator.writeNumberField("peakVisited", peakVisited);
+            generator.writeNumberField("peakLoadFactor", peakLoadFactor);
+            generator.writeNumberField("peakBytesUsed", peakBytesUsed);
+            generator.writeNumberField("elapsedMillis", getElapsed().toMillis());
+            generator.writeArrayFieldStart("microsPerDepth");
+            for (var time : getTimePerDepth()) {
+                generator.writeNumber(time.toNanos() / 1000);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Returns the statistics as a JSON object.
+     *
+     * @return the JSON report
+     */
+    public String toJson() {
+        var writer = new StringWriter();
+        try {
+            writeJson(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Writes the statistics to the log.
+     *
+     * @param name the name of the searches, e.g. the solver or the board
+     */
+    public void log(String name) {
+        Logger.info("{}: {} searches ({} solved) in {} ms, {} expanded, {} generated, {} duplicates, "
+                        + "peak frontier {}, peak visited {} (load factor {}), peak {} bytes",
+                name, searches, solved, getElapsed().toMillis(), nodesExpanded, generated, duplicates,
+                peakFrontier, peakVisited, String.format("%.2f", peakLoadFactor), peakBytesUsed);
+        Logger.debug("{}: time per depth {}", name, Arrays.toString(getTimePerDepth()));
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
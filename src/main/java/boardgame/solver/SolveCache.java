@@ -0,0 +1,256 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.util.LongLongHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Bounded transposition table remembering the best next move and the remaining distance of
+ * packed states of a board, shared by every game and solver invocation on the board.
+ * <p>
+ * On a miss, the state is solved with the wrapped {@link Solver}, and every state along the
+ * solution is stored with its next move and distance, so queries from positions on or near an
+ * earlier solution are answered without searching. Unsolvable states are cached as well.
+ * Entries live in a fixed number of slots evicted by the CLOCK algorithm: every hit sets the
+ * reference bit of the slot, and the clock hand skips and clears referenced slots when looking
+ * for a slot to reuse. The cache is safe to use from several threads.
+ */
+public final class SolveCache {
+
+    /**
+     * A cached answer.
+     *
+     * @param move the encoded best next move, or {@code -1} if the state is solved or cannot be solved
+     * @param distance the number of moves left, or {@link DistanceDatabase#UNSOLVABLE}
+     */
+    public record Entry(int move, int distance) {
+
+        /**
+         * Checks whether the state of the entry can be solved.
+         *
+         * @return {@code true} if the distance is known, {@code false} otherwise
+         */
+        public boolean solvable() {
+            return distance != DistanceDatabase.UNSOLVABLE;
+        }
+    }
+
+    private static final long EMPTY = -1;
+    private static final Entry UNSOLVABLE = new Entry(-1, DistanceDatabase.UNSOLVABLE);
+
+    private final Board board;
+    private final Solver solver;
+    private final int capacity;
+    private final LongLongHashMap slots;
+    private final long[] states;
+    private final Entry[] entries;
+    private final boolean[] referenced;
+    private int size;
+    private int hand;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache solving misses with an {@link AStarSolver} avoiding the states in which
+     * the game is {@linkplain Board#isLost(long) lost}, as a game does.
+     *
+     * @param board the board of the game
+     * @param capacity the maximum number of cached states
+     */
+    public SolveCache(Board board, int capacity) {
+        this(board, capacity, new AStarSolver(true));
+    }
+
+    /**
+     * Creates a cache solving misses with the given solver.
+     *
+     * @param board the board of the game
+     * @param capacity the maximum number of cached states
+     * @param solver the solver returning shortest solutions on a miss
+     */
+    public SolveCache(Board board, int capacity, Solver solver) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.board = board;
+        this.solver = solver;
+        this.capacity = capacity;
+        this.slots = new LongLongHashMap(capacity);
+        this.states = new long[capacity];
+        this.entries = new Entry[capacity];
+        this.referenced = new boolean[capacity];
+        Arrays.fill(states, EMPTY);
+    }
+
+    /**
+     * Returns the best next move and the distance of a packed state, solving it on a miss.
+     *
+     * @param state the packed state
+     * @return the cached or computed {@link Entry}
+     */
+    public Entry get(long state) {
+        var entry = lookup(state);
+        if (entry != null) {
+            return entry;
+        }
+        var result = solver.solve(board, state);
+        if (!result.solvable()) {
+            put(state, UNSOLVABLE);
+            return UNSOLVABLE;
+        }
+        var moveGenerator = board.getMoveGenerator();
+        var moves = result.moves();
+        long current = state;
+        Entry first = null;
+        synchronized (this) {
+            for (int i = 0; i <= moves.size(); i++) {
+                if (i == moves.size()) {
+                    put(current, new Entry(-1, 0));
+                    break;
+                }
+                var move = moves.get(i);
+                long next = moveGenerator.makeMove(current, board.cellOf(move.from()), board.cellOf(move.to()));
+                var currentEntry = new Entry(moveGenerator.moveBetween(current, next), moves.size() - i);
+                put(current, currentEntry);
+                if (first == null) {
+                    first = currentEntry;
+                }
+                current = next;
+            }
+        }
+        return first == null ? new Entry(-1, 0) : first;
+    }
+
+    /**
+     * Returns the cached entry of a packed state without solving it, counting a hit or a miss.
+     *
+     * @param state the packed state
+     * @return the cached {@link Entry}, or {@code null} if the state is not cached
+     */
+    public synchronized Entry lookup(long state) {
+        int slot = (int) slots.get(state, EMPTY);
+        if (slot < 0) {
+            misses++;
+            return null;
+        }
+        hits++;
+        referenced[slot] = true;
+        return entries[slot];
+    }
+
+    /**
+     * Stores the entry of a packed state, evicting another state if the cache is full.
+     *
+     * @param state the packed state
+     * @param entry the entry of the state
+     */
+    public synchronized void put(long state, Entry entry) {
+        int slot = (int) slots.get(state, EMPTY);
+        if (slot < 0) {
+            if (size < capacity) {
+                slot = size++;
+            } else {
+                while (referenced[hand]) {
+                    referenced[hand] = false;
+                    hand = (hand + 1) % capacity;
+                }
+                slot = hand;
+                hand = (hand + 1) % capacity;
+                slots.remove(states[slot]);
+                evictions++;
+            }
+            states[slot] = state;
+            slots.put(state, slot);
+        }
+        entries[slot] = entry;
+    }
+
+    /**
+     * Removes every entry and resets the counters.
+     */
+    public synchronized void clear() {
+        for (int slot = 0; slot < size; slot++) {
+            slots.remove(states[slot]);
+        }
+        Arrays.fill(states, EMPTY);
+        Arrays.fill(entries, null);
+        Arrays.fill(referenced, false);
+        size = 0;
+        hand = 0;
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * Returns the board of the cache.
+     *
+     * @return the {@link Board} the states belong to
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the maximum number of cached states.
+     *
+     * @return the capacity of the cache
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of cached states.
+     *
+     * @return the size of the cache
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of lookups answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups not answered from the cache.
+     *
+     * @return the number of misses
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries evicted to make room for new ones.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the ratio of lookups answered from the cache.
+     *
+     * @return the hit rate, or {@code 0} if there were no lookups
+     */
+    public synchronized double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("SolveCache{size=%d/%d, hits=%d, misses=%d, evictions=%d}",
+                size, capacity, hits, misses, evictions);
+    }
+}
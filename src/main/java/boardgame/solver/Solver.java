@@ -0,0 +1,29 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.BoardGameState;
+
+/**
+ * Common interface of the search algorithms finding a shortest solution of the puzzle.
+ */
+public interface Solver {
+
+    /**
+     * Searches for a shortest sequence of moves leading from a packed state to a solved state.
+     *
+     * @param board the board the game is played on
+     * @param start the packed start state
+     * @return the result of the search
+     */
+    SolverResult solve(Board board, long start);
+
+    /**
+     * Searches for a shortest sequence of moves leading from the given state to a solved state.
+     *
+     * @param state the start state
+     * @return the result of the search
+     */
+    default SolverResult solve(BoardGameState state) {
+        return solve(state.getBoard(), state.toPacked());
+    }
+}
@@ -0,0 +1,68 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.Position;
+import common.TwoPhaseMoveState.TwoPhaseMove;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the outcome of a search.
+ *
+ * @param solvable whether a solved state is reachable from the start state
+ * @param moves the moves of a shortest solution, empty if the puzzle is not solvable
+ * @param nodesExpanded the number of states whose successors were generated
+ * @param elapsed the time the search took
+ */
+public record SolverResult(boolean solvable, List<TwoPhaseMove<Position>> moves, long nodesExpanded, Duration elapsed) {
+
+    /**
+     * Creates the result of a search that did not find a solution.
+     *
+     * @param nodesExpanded the number of states whose successors were generated
+     * @param elapsed the time the search took
+     * @return the result of the unsuccessful search
+     */
+    public static SolverResult unsolvable(long nodesExpanded, Duration elapsed) {
+        return new SolverResult(false, List.of(), nodesExpanded, elapsed);
+    }
+
+    /**
+     * Creates the result of a successful search from the sequence of packed states of the solution.
+     *
+     * @param board the board the game is played on
+     * @param path the packed states of the solution, from the start state to the solved state
+     * @param nodesExpanded the number of states whose successors were generated
+     * @param elapsed the time the search took
+     * @return the result of the successful search
+     */
+    public static SolverResult solved(Board board, long[] path, long nodesExpanded, Duration elapsed) {
+        var moveGenerator = board.getMoveGenerator();
+        var moves = new ArrayList<TwoPhaseMove<Position>>(path.length - 1);
+        for (int i = 1; i < path.length; i++) {
+            int move = moveGenerator.moveBetween(path[i - 1], path[i]);
+            if (move < 0) {
+                throw new IllegalStateException("Invalid solution path at step " + i);
+            }
+            moves.add(board.moveOf(path[i - 1], move));
+        }
+        return new SolverResult(true, List.copyOf(moves), nodesExpanded, elapsed);
+    }
+
+    /**
+     * Returns the number of moves of the solution.
+     *
+     * @return the length of the solution, or {@code -1} if the puzzle is not solvable
+     */
+    public int length() {
+        return solvable ? moves.size() : -1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SolverResult{solvable=%s, length=%d, nodesExpanded=%d, elapsed=%dms}",
+                solvable, length(), nodesExpanded, elapsed.toMillis());
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Provides search algorithms solving the Two-Figure Board Puzzle.
+ *
+ * The solvers work on packed states and the precomputed move tables of a
+ * {@link boardgame.model.Board}, and return their solutions as sequences of
+ * {@link common.TwoPhaseMoveState.TwoPhaseMove} objects, just like the generic
+ * solvers of the puzzle library.
+ */
+package boardgame.solver;
@@ -0,0 +1,101 @@
+package boardgame.util;
+
+/**
+ * A thread-safe hash map from non-negative {@code long} keys to {@code long} values.
+ * <p>
+ * The keys are distributed over a fixed number of stripes, each of them a {@link LongLongHashMap}
+ * guarded by its own lock, so threads inserting different keys rarely contend.
+ */
+public final class ConcurrentLongLongHashMap {
+
+    private final LongLongHashMap[] stripes;
+    private final int shift;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param stripes the minimum number of stripes, rounded up to a power of two
+     * @param expectedSize the number of entries the map can hold without resizing
+     */
+    public ConcurrentLongLongHashMap(int stripes, int expectedSize) {
+        int count = Integer.highestOneBit(Math.max(stripes, 2) - 1) << 1;
+        this.stripes = new LongLongHashMap[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new LongLongHashMap(Math.max(expectedSize / count, 4));
+        }
+        shift = Integer.SIZE - Integer.numberOfTrailingZeros(count);
+    }
+
+    private LongLongHashMap stripe(long key) {
+        long h = key * 0xC2B2AE3D27D4EB4FL;
+        return stripes[(int) (h >>> 32) >>> shift];
+    }
+
+    /**
+     * Associates {@code value} with {@code key} unless the key is already present.
+     *
+     * @param key the non-negative key
+     * @param value the value to associate with the key
+     * @return {@code true} if the entry was added, {@code false} if the key was already present
+     */
+    public boolean putIfAbsent(long key, long value) {
+        var stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.putIfAbsent(key, value);
+        }
+    }
+
+    /**
+     * Returns the value associated with {@code key}.
+     *
+     * @param key the key to look up
+     * @param defaultValue the value returned if the key is not present
+     * @return the value of the key, or {@code defaultValue} if it is not present
+     */
+    public long get(long key, long defaultValue) {
+        var stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.get(key, defaultValue);
+        }
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the size of the map
+     */
+    public long size() {
+        long size = 0;
+        for (var stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the ratio of occupied slots in the hash tables of the stripes.
+     *
+     * @return the load factor of the map
+     */
+    public double loadFactor() {
+        long slots = bytesUsed() / (2L * Long.BYTES);
+        return slots == 0 ? 0 : (double) size() / slots;
+    }
+
+    /**
+     * Returns the number of bytes used by the hash tables of the stripes.
+     *
+     * @return the size of the key and value arrays in bytes
+     */
+    public long bytesUsed() {
+        long bytes = 0;
+        for (var stripe : stripes) {
+            synchronized (stripe) {
+                bytes += stripe.bytesUsed();
+            }
+        }
+        return bytes;
+    }
+}
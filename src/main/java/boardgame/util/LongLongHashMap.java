@@ -0,0 +1,191 @@
+package boardgame.util;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from non-negative {@code long} keys to {@code long} values using open addressing
+ * with linear probing, without boxing or per-entry objects.
+ * <p>
+ * Negative keys are not supported, {@code -1} marks the empty slots.
+ */
+public final class LongLongHashMap {
+
+    private static final long EMPTY = -1;
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param expectedSize the number of entries the map can hold without resizing
+     */
+    public LongLongHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long capacity = Math.max(4, (long) Math.ceil(expectedSize / MAX_LOAD_FACTOR));
+        if (capacity > 1 << 30) {
+            throw new IllegalArgumentException("Map too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) capacity - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+
+    private int slot(long key) {
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Associates {@code value} with {@code key} unless the key is already present.
+     *
+     * @param key the non-negative key
+     * @param value the value to associate with the key
+     * @return {@code true} if the entry was added, {@code false} if the key was already present
+     */
+    public boolean putIfAbsent(long key, long value) {
+        int slot = slot(key);
+        if (keys[slot] == key) {
+            return false;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length * MAX_LOAD_FACTOR) {
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * Associates {@code value} with {@code key}, replacing any previous value.
+     *
+     * @param key the non-negative key
+     * @param value the value to associate with the key
+     */
+    public void put(long key, long value) {
+        int slot = slot(key);
+        if (keys[slot] == key) {
+            values[slot] = value;
+        } else {
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size > keys.length * MAX_LOAD_FACTOR) {
+                rehash();
+            }
+        }
+    }
+
+    /**
+     * Returns the value associated with {@code key}.
+     *
+     * @param key the key to look up
+     * @param defaultValue the value returned if the key is not present
+     * @return the value of the key, or {@code defaultValue} if it is not present
+     */
+    public long get(long key, long defaultValue) {
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Removes the entry of {@code key}. The entries following it in its probe sequence are
+     * shifted back, so no tombstones are left behind.
+     *
+     * @param key the key to remove
+     * @return {@code true} if the key was present, {@code false} otherwise
+     */
+    public boolean remove(long key) {
+        int slot = slot(key);
+        if (keys[slot] != key) {
+            return false;
+        }
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (keys[next] == EMPTY) {
+                break;
+            }
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+        }
+        keys[slot] = EMPTY;
+        size--;
+        return true;
+    }
+
+    /**
+     * Checks whether the key is present in the map.
+     *
+     * @param key the key to look up
+     * @return {@code true} if the key is present, {@code false} otherwise
+     */
+    public boolean containsKey(long key) {
+        return keys[slot(key)] == key;
+    }
+
+    /**
+     * Returns the number of entries in the map.
+     *
+     * @return the size of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the ratio of occupied slots in the hash table.
+     *
+     * @return the load factor of the map
+     */
+    public double loadFactor() {
+        return (double) size / keys.length;
+    }
+
+    /**
+     * Returns the number of bytes used by the hash table.
+     *
+     * @return the size of the key and value arrays in bytes
+     */
+    public long bytesUsed() {
+        return 2L * keys.length * Long.BYTES;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        if (oldKeys.length == 1 << 30) {
+            throw new IllegalStateException("Map is full");
+        }
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package boardgame.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of primitive {@code long} values ordered by a {@code long} priority.
+ */
+public final class LongMinHeap {
+
+    private long[] priorities;
+    private long[] values;
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param initialCapacity the number of elements the heap can hold without growing
+     */
+    public LongMinHeap(int initialCapacity) {
+        priorities = new long[Math.max(initialCapacity, 2)];
+        values = new long[priorities.length];
+    }
+
+    /**
+     * Adds a value with the given priority.
+     *
+     * @param priority the priority of the value, smaller priorities are polled first
+     * @param value the value to add
+     */
+    public void add(long priority, long value) {
+        if (size == priorities.length) {
+            priorities = Arrays.copyOf(priorities, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        int index = size++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            priorities[index] = priorities[parent];
+            values[index] = values[parent];
+            index = parent;
+        }
+        priorities[index] = priority;
+        values[index] = value;
+    }
+
+    /**
+     * Returns the smallest priority in the heap.
+     *
+     * @return the priority of the value {@link #poll()} returns next
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public long peekPriority() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return priorities[0];
+    }
+
+    /**
+     * Removes and returns the value with the smallest priority.
+     *
+     * @return the value with the smallest priority
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public long poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        long result = values[0];
+        size--;
+        long priority = priorities[size];
+        long value = values[size];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                child++;
+            }
+            if (priority <= priorities[child]) {
+                break;
+            }
+            priorities[index] = priorities[child];
+            values[index] = values[child];
+            index = child;
+        }
+        priorities[index] = priority;
+        values[index] = value;
+        return result;
+    }
+
+    /**
+     * Returns the number of values in the heap.
+     *
+     * @return the size of the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes used by the backing arrays.
+     *
+     * @return the size of the priority and value arrays in bytes
+     */
+    public long bytesUsed() {
+        return 2L * priorities.length * Long.BYTES;
+    }
+
+    /**
+     * Checks whether the heap is empty.
+     *
+     * @return {@code true} if the heap holds no values, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
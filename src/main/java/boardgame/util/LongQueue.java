@@ -0,0 +1,98 @@
+package boardgame.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A first-in-first-out queue of primitive {@code long} values backed by a growable ring buffer.
+ */
+public final class LongQueue {
+
+    private long[] elements;
+    private int head;
+    private int size;
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param initialCapacity the number of elements the queue can hold without growing
+     */
+    public LongQueue(int initialCapacity) {
+        elements = new long[Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1];
+    }
+
+    /**
+     * Appends a value to the tail of the queue.
+     *
+     * @param value the value to append
+     */
+    public void add(long value) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & (elements.length - 1)] = value;
+        size++;
+    }
+
+    /**
+     * Removes and returns the value at the head of the queue.
+     *
+     * @return the value at the head of the queue
+     * @throws NoSuchElementException if the queue is empty
+     */
+    public long poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        long value = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return value;
+    }
+
+    /**
+     * Returns the number of values in the queue.
+     *
+     * @return the size of the queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the queue is empty.
+     *
+     * @return {@code true} if the queue holds no values, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all values from the queue.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the number of bytes used by the backing array.
+     *
+     * @return the size of the ring buffer in bytes
+     */
+    public long bytesUsed() {
+        return (long) elements.length * Long.BYTES;
+    }
+
+    private void grow() {
+        if (elements.length == 1 << 30) {
+            throw new IllegalStateException("Queue is full");
+        }
+        long[] grown = new long[elements.length << 1];
+        int firstPart = elements.length - head;
+        System.arraycopy(elements, head, grown, 0, firstPart);
+        System.arraycopy(elements, 0, grown, firstPart, head);
+        elements = grown;
+        head = 0;
+    }
+}
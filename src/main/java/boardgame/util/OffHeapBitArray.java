@@ -0,0 +1,202 @@
+package boardgame.util;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An off-heap array of 1-bit or 2-bit values, initially all {@code 0}.
+ * <p>
+ * The values are stored in a memory segment allocated in native memory or mapped from a temporary
+ * file, so the array can hold billions of values without using the Java heap, and more values than
+ * fit into memory when mapped. Values can also be read a word at a time for fast scanning, with
+ * value {@code i} of word {@code w} in the {@code i}-th lowest group of bits. The segment belongs to
+ * an arena of the array, so closing the array frees the native memory or unmaps the file at once,
+ * instead of leaving it to the garbage collector; the array must not be used after it is closed.
+ */
+public final class OffHeapBitArray implements AutoCloseable {
+
+    private static final ValueLayout.OfLong WORD = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final long length;
+    private final int bitsPerValue;
+    private final int valueMask;
+    private final int valuesPerByteShift;
+    private final long bytes;
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final Path file;
+
+    private OffHeapBitArray(long length, int bitsPerValue, Arena arena, MemorySegment segment, Path file) {
+        this.length = length;
+        this.bitsPerValue = bitsPerValue;
+        this.valueMask = (1 << bitsPerValue) - 1;
+        this.valuesPerByteShift = bitsPerValue == 1 ? 3 : 2;
+        this.bytes = bytesRequired(length, bitsPerValue);
+        this.arena = arena;
+        this.segment = segment;
+        this.file = file;
+    }
+
+    /**
+     * Returns the number of bytes needed for an array.
+     *
+     * @param length the number of values
+     * @param bitsPerValue the number of bits of a value, {@code 1} or {@code 2}
+     * @return the number of bytes, rounded up to whole words
+     */
+    public static long bytesRequired(long length, int bitsPerValue) {
+        checkBitsPerValue(bitsPerValue);
+        long valuesPerWord = Long.SIZE / bitsPerValue;
+        return (length + valuesPerWord - 1) / valuesPerWord * Long.BYTES;
+    }
+
+    private static void checkBitsPerValue(int bitsPerValue) {
+        if (bitsPerValue != 1 && bitsPerValue != 2) {
+            throw new IllegalArgumentException("Values must have 1 or 2 bits: " + bitsPerValue);
+        }
+    }
+
+    /**
+     * Creates an array in native memory, which is freed when the array is closed.
+     *
+     * @param length the number of values
+     * @param bitsPerValue the number of bits of a value, {@code 1} or {@code 2}
+     * @return the new {@code OffHeapBitArray}
+     */
+    public static OffHeapBitArray allocateDirect(long length, int bitsPerValue) {
+        long bytes = bytesRequired(length, bitsPerValue);
+        var arena = Arena.ofShared();
+        try {
+            return new OffHeapBitArray(length, bitsPerValue, arena, arena.allocate(bytes, Long.BYTES), null);
+        } catch (RuntimeException | OutOfMemoryError e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates an array in a temporary file mapped into memory, which is unmapped and deleted when the array is closed.
+     *
+     * @param length the number of values
+     * @param bitsPerValue the number of bits of a value, {@code 1} or {@code 2}
+     * @param directory the directory of the temporary file
+     * @return the new {@code OffHeapBitArray}
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static OffHeapBitArray map(long length, int bitsPerValue, Path directory) throws IOException {
+        long bytes = bytesRequired(length, bitsPerValue);
+        var file = Files.createTempFile(directory, "bits-", ".bin");
+        var arena = Arena.ofShared();
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes, arena);
+            return new OffHeapBitArray(length, bitsPerValue, arena, segment, file);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a value.
+     *
+     * @param index the index of the value
+     * @return the value
+     */
+    public int get(long index) {
+        int value = segment.get(ValueLayout.JAVA_BYTE, index >>> valuesPerByteShift);
+        return value >>> shift(index) & valueMask;
+    }
+
+    /**
+     * Sets a value.
+     *
+     * @param index the index of the value
+     * @param value the new value
+     */
+    public void set(long index, int value) {
+        long offset = index >>> valuesPerByteShift;
+        int shift = shift(index);
+        segment.set(ValueLayout.JAVA_BYTE, offset,
+                (byte) (segment.get(ValueLayout.JAVA_BYTE, offset) & ~(valueMask << shift) | (value & valueMask) << shift));
+    }
+
+    private int shift(long index) {
+        return (int) (index & ((1 << valuesPerByteShift) - 1)) * bitsPerValue;
+    }
+
+    /**
+     * Returns the values of a word.
+     *
+     * @param word the index of the word, holding the values from {@code word * valuesPerWord()}
+     * @return the values packed into a {@code long}
+     */
+    public long getWord(long word) {
+        return segment.get(WORD, word << 3);
+    }
+
+    /**
+     * Returns the number of values held by a word.
+     *
+     * @return {@code 64} for 1-bit values, {@code 32} for 2-bit values
+     */
+    public int valuesPerWord() {
+        return Long.SIZE / bitsPerValue;
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return the length of the array
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Returns the number of words holding the values.
+     *
+     * @return the number of words
+     */
+    public long words() {
+        return bytes / Long.BYTES;
+    }
+
+    /**
+     * Returns the number of bytes used by the array.
+     *
+     * @return the size of the storage in bytes
+     */
+    public long bytesUsed() {
+        return bytes;
+    }
+
+    /**
+     * Checks whether the array is stored in a mapped file.
+     *
+     * @return {@code true} if the array is mapped, {@code false} if it is in direct memory
+     */
+    public boolean isMapped() {
+        return file != null;
+    }
+
+    /**
+     * Frees the memory of the array, and deletes the temporary file of a mapped array.
+     *
+     * @throws IOException if the file cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        arena.close();
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
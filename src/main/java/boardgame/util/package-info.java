@@ -0,0 +1,7 @@
+/**
+ * Provides primitive collections used by the search algorithms.
+ *
+ * The collections store packed states as plain {@code long} values, so no objects
+ * are created for the states visited during a search.
+ */
+package boardgame.util;
@@ -0,0 +1,124 @@
+package boardgame.game;
+
+import boardgame.model.Board;
+import boardgame.solver.AStarSolver;
+import boardgame.solver.BreadthFirstSolver;
+import boardgame.solver.IdaStarSolver;
+import boardgame.solver.Solver;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchSolverTest {
+
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void runTest() throws Exception {
+        var input = """
+                {"id": "standard"}
+                {"id": "small", "board": "3 3\\n1 -1 2\\n1 0 1\\n2 1 *\\n"}
+
+                not json
+                {"id": "moved", "figure1": {"row": 0, "column": 3, "lastMove": "RIGHT"}}
+                {"id": "outside", "figure2": {"row": 9, "column": 0}}
+                """;
+        var output = new StringWriter();
+        var summary = new BatchSolver(AStarSolver::new, 2).run(new BufferedReader(new StringReader(input)), output);
+        assertEquals(5, summary.boards());
+        assertEquals(2, summary.errors());
+
+        var lines = output.toString().lines().map(line -> {
+            try {
+                return json.readTree(line);
+            } catch (Exception e) {
+                throw new AssertionError(e);
+            }
+        }).toList();
+        assertEquals(5, lines.size());
+        assertEquals("standard", lines.get(0).get("id").asText());
+        assertTrue(lines.get(0).get("solvable").asBoolean());
+        assertEquals(14, lines.get(0).get("length").asInt());
+        assertEquals(14, lines.get(0).get("moves").size());
+        assertEquals(4, lines.get(0).get("moves").get(0).size());
+        assertEquals("small", lines.get(1).get("id").asText());
+        assertTrue(lines.get(2).has("error"));
+        assertEquals("moved", lines.get(3).get("id").asText());
+        assertTrue(lines.get(4).has("error"));
+        assertEquals(summary.solvable(), lines.stream().filter(line -> line.path("solvable").asBoolean()).count());
+    }
+
+    @Test
+    void orderTest() throws Exception {
+        var input = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            input.append("{\"id\": ").append(i).append("}\n");
+        }
+        var output = new StringWriter();
+        var summary = new BatchSolver(BreadthFirstSolver::new, 3).run(new BufferedReader(new StringReader(input.toString())), output);
+        assertEquals(50, summary.solvable());
+        var lines = output.toString().lines().toList();
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, json.readTree(lines.get(i)).get("id").asInt());
+        }
+    }
+
+    @Test
+    void unsolvableIdaStarTest() throws Exception {
+        var board = json.createObjectNode().put("board", Board.generate(10, 10, 3, 291).format());
+        var input = json.writeValueAsString(board.put("id", "unsolvable")) + "\n{\"id\": \"standard\"}\n";
+        var output = new StringWriter();
+        var summary = new BatchSolver(IdaStarSolver::new, 1).run(new BufferedReader(new StringReader(input)), output);
+        assertEquals(2, summary.boards());
+        assertEquals(1, summary.solvable());
+        var lines = output.toString().lines().toList();
+        assertFalse(json.readTree(lines.get(0)).get("solvable").asBoolean());
+        assertEquals(14, json.readTree(lines.get(1)).get("length").asInt());
+    }
+
+    @Test
+    void stackOverflowTest() throws Exception {
+        var input = "{\"id\": 1}\n{\"id\": 2}\n";
+        var output = new StringWriter();
+        Solver solver = (board, start) -> {
+            throw new StackOverflowError();
+        };
+        var summary = new BatchSolver(() -> solver, 1).run(new BufferedReader(new StringReader(input)), output);
+        assertEquals(2, summary.boards());
+        assertEquals(2, summary.errors());
+        var lines = output.toString().lines().toList();
+        assertEquals(2, json.readTree(lines.get(1)).get("id").asInt());
+        assertTrue(json.readTree(lines.get(1)).has("error"));
+    }
+
+    @Test
+    void invalidFiguresTest() throws Exception {
+        var input = """
+                {"id": 1, "figure1": {"column": 3}}
+                {"id": 2, "figure1": {"row": "0", "column": 3}}
+                {"id": 3, "figure1": {"row": 0, "column": 3, "lastMove": "SIDEWAYS"}}
+                {"id": 4, "figure1": {"row": 0, "column": 3, "lastMove": "RIGHT"}, "figure2": {"row": 1, "column": 0, "lastMove": "DOWN"}}
+                {"id": 5, "figure1": 7}
+                {"id": 6, "figure2": {"row": 0, "column": 0, "lastMove": "NONE"}}
+                """;
+        var output = new StringWriter();
+        var summary = new BatchSolver(AStarSolver::new, 1).run(new BufferedReader(new StringReader(input)), output);
+        assertEquals(6, summary.boards());
+        assertEquals(5, summary.errors());
+        var lines = output.toString().lines().toList();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(json.readTree(lines.get(i)).has("error"));
+        }
+        assertEquals(14, json.readTree(lines.get(5)).get("length").asInt());
+    }
+
+    @Test
+    void invalidThreadsTest(){
+        assertThrows(IllegalArgumentException.class, () -> new BatchSolver(AStarSolver::new, 0));
+    }
+}
@@ -0,0 +1,139 @@
+package boardgame.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameHistoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void emptyTest() throws IOException {
+        try (var history = GameHistory.open(directory)) {
+            var summary = history.aggregate();
+            assertEquals(0, history.size());
+            assertEquals(0, summary.games());
+            assertEquals(0.0, summary.winRate());
+            assertEquals(Integer.MAX_VALUE, summary.bestMoveCount());
+            assertEquals(0, history.aggregate("Alice").games());
+        }
+    }
+
+    @Test
+    void aggregateTest() throws IOException {
+        try (var history = GameHistory.open(directory)) {
+            history.append(new GameSaveData("Alice", 20, true, 100, null, null));
+            history.append(new GameSaveData("Bob", 30, false, 200, null, null));
+            history.append(new GameSaveData("Alice", 16, true, 300, null, null));
+            history.append(new GameSaveData("Alice", 8, false, 400, null, null));
+
+            var all = history.aggregate();
+            assertEquals(4, all.games());
+            assertEquals(2, all.wins());
+            assertEquals(74, all.totalMoves());
+            assertEquals(16, all.bestMoveCount());
+            assertEquals(100, all.firstTimestamp());
+            assertEquals(400, all.lastTimestamp());
+
+            var alice = history.aggregate("Alice");
+            assertEquals(3, alice.games());
+            assertEquals(2.0 / 3, alice.winRate());
+            assertEquals(List.of("Alice", "Bob"), history.getPlayers());
+
+            var range = history.aggregate(200, 400);
+            assertEquals(2, range.games());
+            assertEquals(1, range.wins());
+
+            var byPlayer = history.aggregateByPlayer();
+            assertEquals(alice, byPlayer.get("Alice"));
+            assertEquals(history.aggregate("Bob"), byPlayer.get("Bob"));
+        }
+    }
+
+    @Test
+    void reopenAcrossSegmentsTest() throws IOException {
+        int games = GameHistory.SEGMENT_ROWS * 2 + 100;
+        try (var history = GameHistory.open(directory)) {
+            for (int i = 0; i < games; i++) {
+                history.append(new GameSaveData("Player" + i % 10, i % 50, i % 3 == 0, i, null, null));
+            }
+        }
+        try (var history = GameHistory.open(directory)) {
+            assertEquals(games, history.size());
+            var summary = history.aggregate();
+            assertEquals(games, summary.games());
+            assertEquals((games + 2) / 3, summary.wins());
+            assertEquals(0, summary.bestMoveCount());
+            assertEquals(games - 1, summary.lastTimestamp());
+            assertEquals(10, history.getPlayers().size());
+            assertEquals(games / 10, history.aggregate("Player9").games());
+
+            history.append(new GameSaveData("Player0", 1, true, games, null, null));
+            assertEquals(games + 1, history.aggregate().games());
+        }
+    }
+
+    @Test
+    void importResultsTest() throws IOException {
+        var log = directory.resolve("results.jsonl");
+        try (var store = GameResultStore.open(log, directory.resolve("legacy.json"))) {
+            store.append(new GameSaveData("Alice", 14, true, 5, null, null));
+            store.append(new GameSaveData("Bob", 9, false, 6, null, null));
+        }
+        try (var history = GameHistory.open(directory.resolve("history"))) {
+            assertEquals(2, history.importResults(log));
+            var summary = history.aggregate();
+            assertEquals(2, summary.games());
+            assertEquals(14, summary.bestMoveCount());
+            assertEquals(5, summary.firstTimestamp());
+        }
+    }
+
+    @Test
+    void concurrentAppendTest() throws Exception {
+        try (var store = GameResultStore.open(directory.resolve("results.jsonl"), directory.resolve("legacy.json"))) {
+            for (int i = 0; i < 1000; i++) {
+                store.append(new GameSaveData("Alice", i, true, i, null, null));
+            }
+            var appender = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    store.append(new GameSaveData("Bob", i, false, 1000 + i, null, null));
+                }
+            });
+            try (var history = GameHistory.open(directory.resolve("history"), store)) {
+                appender.join();
+                store.append(new GameSaveData("Carol", 1, true, 2000, null, null)).get();
+                assertEquals(2001, history.size());
+                assertEquals(1000, history.aggregate("Bob").games());
+                assertEquals(1, history.aggregate("Carol").games());
+            }
+        }
+    }
+
+    @Test
+    void reconcileTest() throws Exception {
+        var log = directory.resolve("results.jsonl");
+        try (var store = GameResultStore.open(log, directory.resolve("legacy.json"))) {
+            store.append(new GameSaveData("Alice", 14, true, 1, null, null));
+            try (var history = GameHistory.open(directory.resolve("history"), store)) {
+                store.append(new GameSaveData("Bob", 9, false, 2, null, null)).get();
+                assertEquals(2, history.size());
+            }
+            store.append(new GameSaveData("Carol", 7, true, 3, null, null)).get();
+            try (var history = GameHistory.open(directory.resolve("history"), store)) {
+                assertEquals(3, history.size());
+                assertEquals(1, history.aggregate("Alice").games());
+                assertEquals(1, history.aggregate("Carol").games());
+                store.append(new GameSaveData("Dave", 5, true, 4, null, null)).get();
+                assertEquals(4, history.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package boardgame.game;
+
+import boardgame.model.Board;
+import boardgame.model.BoardGameState;
+import boardgame.model.Figure;
+import boardgame.model.MoveRecording;
+import boardgame.solver.BreadthFirstSolver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameResultStoreTest {
+
+    @Test
+    void appendAndReadTest(@TempDir Path directory) throws Exception {
+        var path = directory.resolve("results.jsonl");
+        try (var store = GameResultStore.open(path, directory.resolve("missing.json"))) {
+            var futures = new CompletableFuture<?>[100];
+            for (int i = 0; i < futures.length; i++) {
+                futures[i] = store.append(result("player" + i, i, i % 2 == 0));
+            }
+            CompletableFuture.allOf(futures).get();
+            var results = store.readAll();
+            assertEquals(100, results.size());
+            assertEquals("player42", results.get(42).playerName);
+            assertEquals(42, results.get(42).moveCount);
+            assertTrue(results.get(42).solved);
+        }
+        assertEquals(100, Files.readAllLines(path).size());
+
+        try (var store = GameResultStore.open(path, directory.resolve("missing.json"))) {
+            store.append(result("again", 7, false));
+        }
+        try (var store = GameResultStore.open(path, directory.resolve("missing.json"))) {
+            var results = store.readAll();
+            assertEquals(101, results.size());
+            assertEquals("again", results.get(100).playerName);
+        }
+    }
+
+    @Test
+    void timestampAndMovesTest(@TempDir Path directory) throws Exception {
+        var path = directory.resolve("results.jsonl");
+        try (var store = GameResultStore.open(path, directory.resolve("missing.json"))) {
+            store.append(new GameSaveData("alice", 2, false, 1234, "AQI=", null));
+            store.append(new GameSaveData("bob", 0, false, 5678, null, null)).get();
+            var results = store.readAll();
+            assertEquals(1234, results.get(0).timestamp);
+            assertEquals("AQI=", results.get(0).moves);
+            assertEquals(5678, results.get(1).timestamp);
+            assertNull(results.get(1).moves);
+        }
+    }
+
+    @Test
+    void replayTest(@TempDir Path directory) throws Exception {
+        var board = Board.generate(6, 6, 3, 4);
+        var solution = new BreadthFirstSolver().solve(board, board.startState());
+        assertTrue(solution.solvable());
+        var state = new BoardGameState(board, new Figure(), new Figure());
+        var recording = new MoveRecording(board);
+        for (var move : solution.moves()) {
+            state.makeMove(move);
+            recording.record(state.toPacked());
+        }
+        try (var store = GameResultStore.open(directory.resolve("results.jsonl"), directory.resolve("missing.json"))) {
+            var result = new GameSaveData("alice", recording.size(), true, 1234, recording.encode(), board.getId());
+            store.append(result, board);
+            store.append(result, board);
+            store.append(new GameSaveData("bob", 0, false, 5678, new MoveRecording(Board.STANDARD).encode(), null)).get();
+            try (var boards = Files.list(store.getBoardDirectory())) {
+                assertEquals(1, boards.count());
+            }
+            assertFalse(Files.readString(store.getPath()).contains(board.format()));
+            var results = store.readAll();
+            assertEquals(board.format(), store.loadBoard(results.get(1)).format());
+            var replay = store.replay(results.get(1));
+            assertEquals(solution.length(), replay.length());
+            assertTrue(replay.isSolved());
+            assertSame(Board.STANDARD, store.loadBoard(results.get(2)));
+            assertFalse(store.replay(results.get(2)).isSolved());
+            assertThrows(IllegalStateException.class, () -> store.replay(result("carol", 0, false)));
+            assertThrows(IllegalArgumentException.class, () -> store.append(result("carol", 0, false), board));
+        }
+    }
+
+    @Test
+    void closedStoreTest(@TempDir Path directory) throws IOException {
+        var store = GameResultStore.open(directory.resolve("results.jsonl"), directory.resolve("missing.json"));
+        store.close();
+        assertThrows(IllegalStateException.class, () -> store.append(result("late", 1, true)));
+        assertThrows(IllegalStateException.class, store::flush);
+    }
+
+    @Test
+    void listenerTest(@TempDir Path directory) throws Exception {
+        try (var store = GameResultStore.open(directory.resolve("results.jsonl"), directory.resolve("missing.json"))) {
+            var threads = new ArrayList<String>();
+            Consumer<GameSaveData> listener = result -> threads.add(Thread.currentThread().getName());
+            store.addListener(listener);
+            store.append(result("alice", 1, true)).get();
+            assertEquals(List.of("game-result-writer"), threads);
+
+            var names = new ArrayList<String>();
+            Consumer<GameSaveData> follower = result -> names.add(result.playerName);
+            store.readAndListen(follower);
+            store.removeListener(listener);
+            store.removeListener(follower);
+            store.append(result("bob", 2, false)).get();
+            assertEquals(1, threads.size());
+            assertEquals(List.of("alice"), names);
+        }
+    }
+
+    @Test
+    void appendWhileReadingTest(@TempDir Path directory) throws Exception {
+        try (var store = GameResultStore.open(directory.resolve("results.jsonl"), directory.resolve("missing.json"))) {
+            store.append(result("alice", 1, true));
+            var received = new ArrayList<String>();
+            store.readAndListen(result -> {
+                received.add(result.playerName);
+                if (received.size() == 1) {
+                    try {
+                        store.append(result("bob", 2, false)).get();
+                    } catch (Exception e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            });
+            assertEquals(List.of("alice", "bob"), received);
+            store.append(result("carol", 3, true)).get();
+            assertEquals(List.of("alice", "bob", "carol"), received);
+        }
+    }
+
+    @Test
+    void migrationTest(@TempDir Path directory) throws IOException {
+        var legacy = directory.resolve("game_save.json");
+        Files.writeString(legacy, """
+                [ {
+                  "playerName" : "alice",
+                  "moveCount" : 14,
+                  "solved" : true
+                }, {
+                  "playerName" : "bob",
+                  "moveCount" : 3,
+                  "solved" : false,
+                  "extra" : {"ignored" : [1, 2]}
+                } ]
+                """);
+        var path = directory.resolve("results.jsonl");
+        try (var store = GameResultStore.open(path, legacy)) {
+            var results = store.readAll();
+            assertEquals(2, results.size());
+            assertEquals("alice", results.get(0).playerName);
+            assertEquals(14, results.get(0).moveCount);
+            assertFalse(results.get(1).solved);
+        }
+        Files.writeString(legacy, "[]");
+        try (var store = GameResultStore.open(path, legacy)) {
+            assertEquals(2, store.readAll().size());
+        }
+    }
+
+    @Test
+    void invalidFileTest(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("results.jsonl");
+        Files.writeString(path, "{\"playerName\":\"a\",\"moveCount\":1,\"solved\":true}\n42\n");
+        assertThrows(IOException.class, () -> GameResultStore.read(path, result -> {}));
+    }
+
+    private static GameSaveData result(String playerName, int moveCount, boolean solved) {
+        return new GameSaveData(playerName, moveCount, solved, System.currentTimeMillis(), null, null);
+    }
+}
@@ -0,0 +1,127 @@
+package boardgame.game;
+
+import boardgame.model.Board;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeaderboardTest {
+
+    private static final String STANDARD = Board.STANDARD.getId();
+
+    @Test
+    void playerStatsTest(){
+        var leaderboard = new Leaderboard();
+        leaderboard.add(result("alice", 20, true));
+        leaderboard.add(result("alice", 5, false));
+        leaderboard.add(result("alice", 16, true));
+        leaderboard.add(result("bob", 3, false));
+
+        var alice = leaderboard.getPlayerStats(STANDARD, "alice").orElseThrow();
+        assertEquals(3, alice.games());
+        assertEquals(2, alice.wins());
+        assertEquals(16, alice.bestMoveCount());
+        assertEquals(2.0 / 3, alice.winRate(), 1e-9);
+        assertFalse(leaderboard.getPlayerStats(STANDARD, "bob").orElseThrow().hasSolved());
+        assertTrue(leaderboard.getPlayerStats(STANDARD, "carol").isEmpty());
+        assertEquals(4, leaderboard.getGames(STANDARD));
+        assertEquals(2, leaderboard.getPlayers(STANDARD));
+        assertEquals(0.5, leaderboard.getWinRate(STANDARD), 1e-9);
+    }
+
+    @Test
+    void rankingTest(){
+        var leaderboard = new Leaderboard();
+        leaderboard.add(result("alice", 20, true));
+        leaderboard.add(result("bob", 18, true));
+        leaderboard.add(result("carol", 1, false));
+        assertEquals("bob", leaderboard.getTopPlayers(STANDARD, 10).get(0).playerName());
+        leaderboard.add(result("alice", 14, true));
+        var top = leaderboard.getTopPlayers(STANDARD, 10);
+        assertEquals(2, top.size());
+        assertEquals("alice", top.get(0).playerName());
+        assertEquals("bob", top.get(1).playerName());
+        assertEquals(1, leaderboard.getTopPlayers(STANDARD, 1).size());
+
+        var solves = leaderboard.getTopSolves(STANDARD, 2);
+        assertEquals(14, solves.get(0).moveCount());
+        assertEquals(18, solves.get(1).moveCount());
+    }
+
+    @Test
+    void boardsTest(){
+        var leaderboard = new Leaderboard();
+        String other = Board.generate(6, 6, 3, 4).getId();
+        leaderboard.add(result("alice", 20, true));
+        leaderboard.add(new GameSaveData("alice", 9, true, 0, null, other));
+        leaderboard.add(new GameSaveData("bob", 12, true, 0, null, STANDARD));
+        assertEquals(Set.of(STANDARD, other), leaderboard.getBoards());
+        assertEquals(2, leaderboard.getGames(STANDARD));
+        assertEquals(1, leaderboard.getGames(other));
+        assertEquals(12, leaderboard.getTopSolves(STANDARD, 1).get(0).moveCount());
+        assertEquals(20, leaderboard.getPlayerStats(STANDARD, "alice").orElseThrow().bestMoveCount());
+        assertEquals(9, leaderboard.getTopPlayers(other, 10).get(0).bestMoveCount());
+        assertEquals(0, leaderboard.getGames("missing"));
+        assertTrue(leaderboard.getTopSolves("missing", 10).isEmpty());
+    }
+
+    @Test
+    void topSolvesAreBoundedTest(){
+        var leaderboard = new Leaderboard();
+        var random = new SplittableRandom(3);
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < 1_000_000; i++) {
+            int moves = 14 + random.nextInt(1000);
+            best = Math.min(best, moves);
+            leaderboard.add(result("player" + random.nextInt(1000), moves, random.nextBoolean()));
+        }
+        var solves = leaderboard.getTopSolves(STANDARD, Integer.MAX_VALUE);
+        assertEquals(Leaderboard.MAX_TOP_SOLVES, solves.size());
+        for (int i = 1; i < solves.size(); i++) {
+            assertTrue(solves.get(i - 1).moveCount() <= solves.get(i).moveCount());
+        }
+        assertEquals(leaderboard.getTopPlayers(STANDARD, 1).get(0).bestMoveCount(), solves.get(0).moveCount());
+    }
+
+    @Test
+    void listenerTest(@TempDir Path directory) throws Exception {
+        try (var store = GameResultStore.open(directory.resolve("results.jsonl"), directory.resolve("missing.json"))) {
+            store.append(result("alice", 15, true));
+            var leaderboard = new Leaderboard();
+            store.readAndListen(leaderboard::add);
+            store.append(result("alice", 14, true)).get();
+            assertEquals(2, leaderboard.getGames(STANDARD));
+            assertEquals(14, leaderboard.getPlayerStats(STANDARD, "alice").orElseThrow().bestMoveCount());
+        }
+    }
+
+    @Test
+    void concurrentAppendTest(@TempDir Path directory) throws Exception {
+        try (var store = GameResultStore.open(directory.resolve("results.jsonl"), directory.resolve("missing.json"))) {
+            for (int i = 0; i < 1000; i++) {
+                store.append(result("before", i, true));
+            }
+            var appender = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    store.append(result("during", i, false));
+                }
+            });
+            var leaderboard = new Leaderboard();
+            store.readAndListen(leaderboard::add);
+            appender.join();
+            store.append(result("after", 1, true)).get();
+            assertEquals(2001, leaderboard.getGames(STANDARD));
+            assertEquals(1000, leaderboard.getPlayerStats(STANDARD, "during").orElseThrow().games());
+            assertEquals(1000, leaderboard.getPlayerStats(STANDARD, "before").orElseThrow().games());
+        }
+    }
+
+    private static GameSaveData result(String playerName, int moveCount, boolean solved) {
+        return new GameSaveData(playerName, moveCount, solved, System.currentTimeMillis(), null, null);
+    }
+}
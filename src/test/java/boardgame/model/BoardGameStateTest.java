@@ -237,6 +237,16 @@ public class BoardGameStateTest {
         assertEquals(new Figure(new Position(2,2), Direction.NONE), s3.getFigure2());
     }
 
+    @Test
+    void moveTableTest(){
+        var state = new BoardGameState(new Figure(), new Figure());
+        var moves = state.getLegalMoves();
+        assertEquals(moves, state.getLegalMoves());
+        for (var move : state.getLegalMoves()) {
+            assertTrue(moves.stream().anyMatch(m -> m == move));
+        }
+    }
+
     @Test
     void testToString(){
         var f1 = new Figure(new Position(1,1), Direction.NONE);
@@ -0,0 +1,99 @@
+package boardgame.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardTest {
+
+    @Test
+    void standardBoardTest(){
+        var board = Board.STANDARD;
+        assertEquals(8, board.getRows());
+        assertEquals(8, board.getColumns());
+        assertEquals(64, board.getCells());
+        assertEquals(BoardGameState.FINAL_CELL, board.getTarget());
+        for (int row = 0; row < 8; row++) {
+            for (int column = 0; column < 8; column++) {
+                assertEquals(BoardGameState.table[row][column], board.getSteps(new Position(row, column)));
+            }
+        }
+    }
+
+    @Test
+    void isLostTest(){
+        var board = Board.STANDARD;
+        int none = Direction.NONE.ordinal();
+        assertTrue(board.isLost(PackedState.pack(63, none, 0, none)));
+        assertTrue(board.isLost(PackedState.pack(5, Direction.UP.ordinal(), 63, none)));
+        assertFalse(board.isLost(PackedState.pack(63, Direction.LEFT.ordinal(), 0, none)));
+        assertFalse(board.isLost(PackedState.pack(63, none, 63, none)));
+        assertFalse(board.isLost(board.startState()));
+    }
+
+    @Test
+    void parseTest(){
+        var board = Board.parse("""
+                # a small board
+                2 3
+                1 2 0
+
+                1 1 *
+                """);
+        assertEquals(2, board.getRows());
+        assertEquals(3, board.getColumns());
+        assertEquals(new Position(1,2), board.getTarget());
+        assertEquals(2, board.getSteps(1));
+        assertEquals(-1, board.getSteps(5));
+
+        var withTarget = Board.parse("2 2\ntarget 0 1\n1 1\n1 1\n");
+        assertEquals(new Position(0,1), withTarget.getTarget());
+        assertEquals(1, withTarget.getSteps(1));
+    }
+
+    @Test
+    void parseInvalidTest(){
+        assertThrows(IllegalArgumentException.class, () -> Board.parse("2\n1 1\n"));
+        assertThrows(IllegalArgumentException.class, () -> Board.parse("2 2\n1 1\n1\n"));
+        assertThrows(IllegalArgumentException.class, () -> Board.parse("2 2\n1 1\n"));
+        assertThrows(IllegalArgumentException.class, () -> Board.parse("0 2\n"));
+        assertThrows(IllegalArgumentException.class, () -> Board.parse("2 2\ntarget 2 2\n1 1\n1 1\n"));
+        assertThrows(IllegalArgumentException.class, () -> Board.parse("2 2\ntarget 0 2\n1 1\n1 1\n"));
+        assertThrows(IllegalArgumentException.class, () -> Board.parse("2 2\ntarget 1 -1\n1 1\n1 1\n"));
+    }
+
+    @Test
+    void formatTest(){
+        var standard = Board.parse(Board.STANDARD.format());
+        assertEquals(Board.STANDARD.format(), standard.format());
+        assertEquals(Board.STANDARD.getTarget(), standard.getTarget());
+
+        var withTarget = Board.parse("2 2\ntarget 0 1\n1 1\n1 1\n");
+        assertEquals(withTarget.format(), Board.parse(withTarget.format()).format());
+        assertEquals(withTarget.getId(), Board.parse(withTarget.format()).getId());
+        assertNotEquals(withTarget.getId(), Board.parse("2 2\ntarget 1 0\n1 1\n1 1\n").getId());
+    }
+
+    @Test
+    void generateTest(){
+        var board = Board.generate(64, 128, 6, 7);
+        assertEquals(64 * 128, board.getCells());
+        assertEquals(board.getCells() - 1, board.getTargetCell());
+        assertEquals(-1, board.getSteps(board.getTargetCell()));
+        assertEquals(board.format(), Board.generate(64, 128, 6, 7).format());
+        for (int cell = 0; cell < board.getTargetCell(); cell++) {
+            assertTrue(board.getSteps(cell) >= 0 && board.getSteps(cell) <= 6);
+        }
+    }
+
+    @Test
+    void positionTest(){
+        var board = Board.generate(5, 7, 3, 1);
+        assertEquals(new Position(2,3), board.positionOf(17));
+        assertEquals(17, board.cellOf(new Position(2,3)));
+        assertTrue(board.isValidPosition(new Position(4,6)));
+        assertFalse(board.isValidPosition(new Position(5,6)));
+        assertFalse(board.isValidPosition(new Position(4,7)));
+        assertFalse(board.isValidPosition(new Position(-1,0)));
+    }
+}
@@ -0,0 +1,69 @@
+package boardgame.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadStateDetectorTest {
+
+    @Test
+    void standardBoardTest(){
+        var detector = Board.STANDARD.getDeadStateDetector();
+        assertSame(detector, Board.STANDARD.getDeadStateDetector());
+        assertFalse(new BoardGameState(new Figure(), new Figure()).isDead());
+        assertTrue(new BoardGameState(new Figure(new Position(0,2), Direction.NONE), new Figure()).isDead());
+        assertFalse(detector.isDead(PackedState.pack(63, Direction.UP.ordinal(), 63, Direction.NONE.ordinal())));
+        assertTrue(detector.isDead(PackedState.pack(63, Direction.NONE.ordinal(), 0, Direction.NONE.ordinal())));
+    }
+
+    @Test
+    void matchesForwardSearchTest(){
+        for (var board : new Board[]{Board.STANDARD, Board.generate(5, 4, 3, 7), Board.generate(6, 6, 2, 1)}) {
+            matchesForwardSearch(board, true);
+            matchesForwardSearch(board, false);
+        }
+    }
+
+    private static void matchesForwardSearch(Board board, boolean lostStatesDead) {
+        var detector = new DeadStateDetector(board, lostStatesDead);
+        var moveGenerator = board.getMoveGenerator();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int cell1 = 0; cell1 < board.getCells(); cell1 += 3) {
+            for (int cell2 = 0; cell2 < board.getCells(); cell2 += 2) {
+                long start = PackedState.pack(cell1, Direction.NONE.ordinal(), cell2, Direction.RIGHT.ordinal());
+                var visited = new HashSet<Long>();
+                var queue = new ArrayDeque<Long>();
+                visited.add(start);
+                queue.add(start);
+                boolean solvable = false;
+                while (!queue.isEmpty() && !solvable) {
+                    long state = queue.poll();
+                    if (lostStatesDead && board.isLost(state)) {
+                        continue;
+                    }
+                    solvable = board.isSolved(state);
+                    int count = moveGenerator.generate(state, moves);
+                    for (int i = 0; i < count; i++) {
+                        long next = moveGenerator.apply(state, moves[i]);
+                        if (visited.add(next)) {
+                            queue.add(next);
+                        }
+                    }
+                }
+                assertEquals(solvable, detector.isSolvable(start));
+                assertEquals(!solvable, detector.isDead(start));
+            }
+        }
+    }
+
+    @Test
+    void supportsTest(){
+        assertTrue(DeadStateDetector.supports(Board.STANDARD));
+        assertFalse(DeadStateDetector.supports(Board.generate(128, 128, 3, 0)));
+        assertFalse(DeadStateDetector.supports(Board.generate(100, 100, 3, 0)));
+        assertEquals(2L * 64 * 64 * 25 / 8, DeadStateDetector.bytesRequired(Board.STANDARD));
+    }
+}
@@ -11,4 +11,28 @@ public class FigureTest {
         assertEquals(new Figure(new Position(0,0), Direction.NONE), new Figure());
     }
 
+    @Test
+    public void flyweightTest(){
+        var figure = Figure.of(new Position(3,5), Direction.LEFT);
+        assertSame(figure, Figure.of(Position.of(3,5), Direction.LEFT));
+        assertSame(Position.of(3,5), figure.position());
+        assertEquals(new Figure(new Position(3,5), Direction.LEFT), figure);
+        assertEquals(new Figure(new Position(3,5), Direction.LEFT).hashCode(), figure.hashCode());
+        assertNotEquals(Figure.of(Position.of(3,5), Direction.UP), figure);
+
+        var large = Figure.of(new Position(Position.CACHE_SIZE, 0), Direction.NONE);
+        assertNotSame(large, Figure.of(new Position(Position.CACHE_SIZE, 0), Direction.NONE));
+        assertEquals(large, Figure.of(new Position(Position.CACHE_SIZE, 0), Direction.NONE));
+    }
+
+    @Test
+    public void positionFlyweightTest(){
+        assertSame(Position.of(7,7), Position.of(7,7));
+        assertEquals(new Position(7,7), Position.of(7,7));
+        assertEquals(new Position(7,7).hashCode(), Position.of(7,7).hashCode());
+        assertSame(Position.of(2,3), Position.getNewPosition(Position.of(2,0), Direction.RIGHT, 3));
+        assertEquals(new Position(-1,0), Position.of(-1,0));
+        assertNotSame(Position.of(0,Position.CACHE_SIZE), Position.of(0,Position.CACHE_SIZE));
+    }
+
 }
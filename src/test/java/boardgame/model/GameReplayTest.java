@@ -0,0 +1,74 @@
+package boardgame.model;
+
+import boardgame.solver.BreadthFirstSolver;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameReplayTest {
+
+    private final Board board = Board.generate(9, 9, 4, 7);
+
+    private List<Long> randomGame(MoveRecording recording, int maxMoves, long seed) {
+        var moveGenerator = board.getMoveGenerator();
+        var random = new Random(seed);
+        var states = new ArrayList<Long>();
+        long state = recording.getState();
+        states.add(state);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int ply = 0; ply < maxMoves; ply++) {
+            int count = moveGenerator.generate(state, moves);
+            if (count == 0) {
+                break;
+            }
+            state = moveGenerator.apply(state, moves[random.nextInt(count)]);
+            recording.record(state);
+            states.add(state);
+        }
+        return states;
+    }
+
+    @Test
+    void replayTest(){
+        var recording = new MoveRecording(board);
+        var states = randomGame(recording, 100, 1);
+        assertEquals(states.size() - 1, recording.size());
+        assertEquals(recording.size(), recording.toBytes().length);
+
+        var replay = new GameReplay(MoveRecording.decode(board, recording.encode()));
+        assertEquals(recording.size(), replay.length());
+        for (int ply = 0; ply <= replay.length(); ply++) {
+            assertEquals((long) states.get(ply), replay.stateAt(ply));
+        }
+        assertEquals(BoardGameState.fromPacked(board, states.get(states.size() - 1)).toPacked(),
+                replay.boardGameStateAt(replay.length()).toPacked());
+        assertThrows(IndexOutOfBoundsException.class, () -> replay.stateAt(replay.length() + 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> replay.stateAt(-1));
+    }
+
+    @Test
+    void solvedGameTest(){
+        var result = new BreadthFirstSolver().solve(Board.STANDARD, Board.STANDARD.startState());
+        var state = new BoardGameState(new Figure(), new Figure());
+        var recording = new MoveRecording(Board.STANDARD);
+        for (var move : result.moves()) {
+            state.makeMove(move);
+            recording.record(state.toPacked());
+        }
+        var replay = new GameReplay(MoveRecording.decode(Board.STANDARD, recording.toBytes()));
+        assertTrue(replay.isSolved());
+        assertFalse(new GameReplay(new MoveRecording(Board.STANDARD)).isSolved());
+    }
+
+    @Test
+    void illegalMoveTest(){
+        var recording = new MoveRecording(board);
+        assertThrows(IllegalArgumentException.class, () -> recording.record(recording.getState()));
+        assertThrows(IllegalArgumentException.class, () -> MoveRecording.decode(board, new byte[]{7}));
+        assertThrows(IndexOutOfBoundsException.class, () -> recording.move(0));
+    }
+}
@@ -0,0 +1,144 @@
+package boardgame.model;
+
+import common.TwoPhaseMoveState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveGeneratorTest {
+
+    private final Board board = Board.STANDARD;
+    private final MoveGenerator generator = board.getMoveGenerator();
+
+    @Test
+    void targetTest(){
+        assertEquals(3, generator.target(0, Direction.RIGHT.ordinal()));
+        assertEquals(24, generator.target(0, Direction.DOWN.ordinal()));
+        assertEquals(-1, generator.target(0, Direction.UP.ordinal()));
+        assertEquals(-1, generator.target(0, Direction.LEFT.ordinal()));
+        assertEquals(-1, generator.target(2, Direction.RIGHT.ordinal()));
+        assertEquals(55, generator.target(63, Direction.DOWN.ordinal()));
+    }
+
+    @Test
+    void legalDirectionsTest(){
+        int rightAndDown = 1 << Direction.RIGHT.ordinal() | 1 << Direction.DOWN.ordinal();
+        assertEquals(rightAndDown, generator.legalDirections(0, Direction.NONE.ordinal()));
+        assertEquals(1 << Direction.DOWN.ordinal(), generator.legalDirections(0, Direction.LEFT.ordinal()));
+        assertEquals(1 << Direction.RIGHT.ordinal(), generator.legalDirections(0, Direction.UP.ordinal()));
+    }
+
+    @Test
+    void generateMatchesIsLegalMoveTest(){
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int cell1 = 0; cell1 < board.getCells(); cell1++) {
+            for (int cell2 = 0; cell2 < board.getCells(); cell2 += 3) {
+                for (Direction lastMove1 : Direction.values()) {
+                    for (Direction lastMove2 : Direction.values()) {
+                        var state = new BoardGameState(new Figure(board.positionOf(cell1), lastMove1),
+                                new Figure(board.positionOf(cell2), lastMove2));
+                        var expected = new HashSet<TwoPhaseMoveState.TwoPhaseMove<Position>>();
+                        for (var from : new Position[]{state.getFigure1().position(), state.getFigure2().position()}) {
+                            for (int to = 0; to < board.getCells(); to++) {
+                                var move = new TwoPhaseMoveState.TwoPhaseMove<>(from, board.positionOf(to));
+                                if (state.isLegalMove(move)) {
+                                    expected.add(move);
+                                }
+                            }
+                        }
+                        assertEquals(expected, state.getLegalMoves());
+
+                        long packed = state.toPacked();
+                        int count = generator.generate(packed, moves);
+                        assertEquals(expected.size(), count);
+                        for (int i = 0; i < count; i++) {
+                            var next = state.clone();
+                            next.makeMove(new TwoPhaseMoveState.TwoPhaseMove<>(
+                                    board.positionOf(MoveGenerator.from(packed, moves[i])),
+                                    board.positionOf(generator.to(packed, moves[i]))));
+                            assertEquals(next.toPacked(), generator.apply(packed, moves[i]));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void generatedBoardMatchesBoardGameStateTest(){
+        var generated = Board.generate(16, 12, 5, 42);
+        var moveGenerator = generated.getMoveGenerator();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int cell = 0; cell < generated.getCells(); cell++) {
+            for (Direction lastMove : Direction.values()) {
+                var state = new BoardGameState(generated, new Figure(generated.positionOf(cell), Direction.NONE),
+                        new Figure(generated.positionOf(generated.getCells() - 1 - cell), lastMove));
+                long packed = state.toPacked();
+                int count = moveGenerator.generate(packed, moves);
+                assertEquals(state.getLegalMoves().size(), count);
+                for (int i = 0; i < count; i++) {
+                    var move = new TwoPhaseMoveState.TwoPhaseMove<>(
+                            generated.positionOf(MoveGenerator.from(packed, moves[i])),
+                            generated.positionOf(moveGenerator.to(packed, moves[i])));
+                    assertTrue(state.isLegalMove(move));
+                    var next = state.clone();
+                    next.makeMove(move);
+                    assertEquals(next.toPacked(), moveGenerator.apply(packed, moves[i]));
+                    assertEquals(moves[i], moveGenerator.moveBetween(packed, next.toPacked()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void predecessorsTest(){
+        for (var testBoard : new Board[]{board, Board.generate(5, 6, 4, 3), Board.parse("3 3\n1 -1 2\n1 0 1\n2 1 *\n")}) {
+            var moveGenerator = testBoard.getMoveGenerator();
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            long[] predecessors = new long[moveGenerator.maxPredecessors()];
+            var expected = new HashMap<Long, Set<Long>>();
+            var states = new ArrayList<Long>();
+            for (int cell1 = 0; cell1 < testBoard.getCells(); cell1++) {
+                for (int cell2 = 0; cell2 < testBoard.getCells(); cell2++) {
+                    for (int lastMove1 = 0; lastMove1 < Direction.values().length; lastMove1++) {
+                        for (int lastMove2 = 0; lastMove2 < Direction.values().length; lastMove2++) {
+                            states.add(PackedState.pack(cell1, lastMove1, cell2, lastMove2));
+                        }
+                    }
+                }
+            }
+            for (long state : states) {
+                int count = moveGenerator.generate(state, moves);
+                for (int i = 0; i < count; i++) {
+                    expected.computeIfAbsent(moveGenerator.apply(state, moves[i]), k -> new HashSet<>()).add(state);
+                }
+            }
+            for (long state : states) {
+                int count = moveGenerator.predecessors(state, predecessors);
+                var actual = new HashSet<Long>();
+                for (int i = 0; i < count; i++) {
+                    actual.add(predecessors[i]);
+                }
+                assertEquals(count, actual.size());
+                assertEquals(expected.getOrDefault(state, Set.of()), actual);
+            }
+        }
+    }
+
+    @Test
+    void moveEncodingTest(){
+        var state = board.pack(new Figure(), new Figure(new Position(1,1), Direction.NONE));
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = generator.generate(state, moves);
+        assertEquals(4, count);
+        for (int i = 0; i < count; i++) {
+            int figure = MoveGenerator.figure(moves[i]);
+            assertEquals(figure == 1 ? 0 : 9, MoveGenerator.from(state, moves[i]));
+        }
+    }
+}
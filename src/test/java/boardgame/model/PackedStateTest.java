@@ -0,0 +1,120 @@
+package boardgame.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedStateTest {
+
+    private final Board board = Board.STANDARD;
+
+    @Test
+    void packTest(){
+        var f1 = new Figure(new Position(3,5), Direction.LEFT);
+        var f2 = new Figure(new Position(7,7), Direction.NONE);
+
+        long packed = board.pack(f1, f2);
+        assertEquals(29, PackedState.cell1(packed));
+        assertEquals(Direction.LEFT.ordinal(), PackedState.lastMove1(packed));
+        assertEquals(63, PackedState.cell2(packed));
+        assertEquals(Direction.NONE.ordinal(), PackedState.lastMove2(packed));
+        assertEquals(f1, board.figure1(packed));
+        assertEquals(f2, board.figure2(packed));
+    }
+
+    @Test
+    void indexTest(){
+        var generated = Board.generate(5, 3, 2, 1);
+        int cells = generated.getCells();
+        assertEquals(15L * 15 * 25, PackedState.states(generated));
+        for (long index = 0; index < PackedState.states(generated); index++) {
+            long state = PackedState.fromIndex(index, cells);
+            assertTrue(PackedState.cell1(state) < cells && PackedState.cell2(state) < cells);
+            assertEquals(index, PackedState.index(state, cells));
+        }
+        assertEquals((3L * 64 + 63) * 25 + Direction.LEFT.ordinal() * 5 + Direction.NONE.ordinal(),
+                PackedState.index(PackedState.pack(3, Direction.LEFT.ordinal(), 63, Direction.NONE.ordinal()), 64));
+    }
+
+    @Test
+    void roundTripTest(){
+        for (int cell = 0; cell < board.getCells(); cell++) {
+            for (Direction direction : Direction.values()) {
+                var f1 = new Figure(board.positionOf(cell), direction);
+                var f2 = new Figure(board.positionOf(board.getCells() - 1 - cell), Direction.NONE);
+                var state = new BoardGameState(f1, f2);
+                assertEquals(state, BoardGameState.fromPacked(board, state.toPacked()));
+                assertEquals(Long.hashCode(state.toPacked()), state.hashCode());
+            }
+        }
+    }
+
+    @Test
+    void largeCellTest(){
+        int cell = Board.MAX_CELLS - 1;
+        long packed = PackedState.pack(cell, Direction.DOWN.ordinal(), cell - 1, Direction.LEFT.ordinal());
+        assertEquals(cell, PackedState.cell1(packed));
+        assertEquals(Direction.DOWN.ordinal(), PackedState.lastMove1(packed));
+        assertEquals(cell - 1, PackedState.cell2(packed));
+        assertEquals(Direction.LEFT.ordinal(), PackedState.lastMove2(packed));
+    }
+
+    @Test
+    void isSolvedTest(){
+        var f1 = new Figure();
+        var f2 = new Figure(new Position(7,7), Direction.LEFT);
+
+        assertFalse(board.isSolved(board.pack(f1, f2)));
+        assertFalse(board.isSolved(board.pack(f2, f1)));
+        assertTrue(board.isSolved(board.pack(f2, f2)));
+    }
+
+    @Test
+    void isLegalToMoveFromTest(){
+        var f1 = new Figure();
+        var f2 = new Figure(new Position(0,0), Direction.UP);
+        var f3 = new Figure(new Position(1,1), Direction.NONE);
+
+        assertTrue(PackedState.isLegalToMoveFrom(board.pack(f1, f2), 0));
+        assertFalse(PackedState.isLegalToMoveFrom(board.pack(f2, f2), 0));
+        assertTrue(PackedState.isLegalToMoveFrom(board.pack(f2, f3), 9));
+        assertFalse(PackedState.isLegalToMoveFrom(board.pack(f2, f3), 0));
+    }
+
+    @Test
+    void movingFigureTest(){
+        var f1 = new Figure();
+        var f2 = new Figure(new Position(0,0), Direction.UP);
+        var f3 = new Figure(new Position(1,1), Direction.NONE);
+
+        assertEquals(1, PackedState.movingFigure(board.pack(f1, f1), 0));
+        assertEquals(2, PackedState.movingFigure(board.pack(f2, f1), 0));
+        assertEquals(2, PackedState.movingFigure(board.pack(f2, f3), 9));
+        assertThrows(IllegalArgumentException.class, () -> PackedState.movingFigure(board.pack(f2, f3), 5));
+    }
+
+    @Test
+    void makeMoveMatchesBoardGameStateTest(){
+        var start = new BoardGameState(new Figure(), new Figure());
+        var visited = new HashSet<BoardGameState>();
+        var queue = new ArrayDeque<BoardGameState>();
+        visited.add(start);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            var state = queue.poll();
+            for (var move : state.getLegalMoves()) {
+                var next = state.clone();
+                next.makeMove(move);
+                long packed = board.getMoveGenerator().makeMove(state.toPacked(),
+                        board.cellOf(move.from()), board.cellOf(move.to()));
+                assertEquals(next.toPacked(), packed);
+                if (visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+    }
+}
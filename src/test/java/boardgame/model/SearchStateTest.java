@@ -0,0 +1,49 @@
+package boardgame.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchStateTest {
+
+    @Test
+    void makeAndUnmakeMoveTest(){
+        var start = new BoardGameState(new Figure(), new Figure());
+        var state = new SearchState(start);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = state.generateMoves(moves);
+        assertEquals(start.getLegalMoves().size(), count);
+        for (int i = 0; i < count; i++) {
+            state.makeMove(moves[i]);
+            assertEquals(1, state.getDepth());
+            assertEquals(Board.STANDARD.getMoveGenerator().apply(start.toPacked(), moves[i]), state.getState());
+            state.unmakeMove();
+            assertEquals(0, state.getDepth());
+            assertEquals(start, state.toBoardGameState());
+        }
+        assertThrows(IllegalStateException.class, state::unmakeMove);
+    }
+
+    @Test
+    void pathTest(){
+        var board = Board.STANDARD;
+        var state = new SearchState(board, board.startState());
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int depth = 1; depth <= 100; depth++) {
+            long before = state.getState();
+            assertTrue(state.generateMoves(moves) > 0);
+            state.makeMove(moves[0]);
+            assertTrue(state.isOnPath(before));
+            assertEquals(depth, state.getDepth());
+        }
+        long[] path = state.path();
+        assertEquals(101, path.length);
+        assertEquals(board.startState(), path[0]);
+        assertEquals(state.getState(), path[100]);
+        for (int depth = 100; depth > 0; depth--) {
+            state.unmakeMove();
+            assertEquals(path[depth - 1], state.getState());
+        }
+        assertFalse(state.isOnPath(path[1]));
+    }
+}
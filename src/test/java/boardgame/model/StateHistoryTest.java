@@ -0,0 +1,53 @@
+package boardgame.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StateHistoryTest {
+
+    @Test
+    void undoRedoTest(){
+        var start = StateHistory.of(10);
+        assertFalse(start.canUndo());
+        assertFalse(start.canRedo());
+        assertThrows(IllegalStateException.class, start::undo);
+        assertThrows(IllegalStateException.class, start::redo);
+
+        var history = start.push(11).push(12).push(13);
+        assertEquals(3, history.depth());
+        assertEquals(13, history.state());
+
+        var undone = history.undo().undo();
+        assertEquals(11, undone.state());
+        assertEquals(1, undone.depth());
+        assertTrue(undone.canRedo());
+        assertEquals(12, undone.redo().state());
+        assertEquals(13, undone.redo().redo().state());
+        assertFalse(undone.redo().redo().canRedo());
+        assertArrayEquals(new long[]{10, 11, 12, 13}, undone.redo().redo().path());
+
+        var branched = undone.push(20);
+        assertFalse(branched.canRedo());
+        assertArrayEquals(new long[]{10, 11, 20}, branched.path());
+        assertArrayEquals(new long[]{10, 11, 12, 13}, history.path());
+        assertEquals(10, start.state());
+    }
+
+    @Test
+    void longGameTest(){
+        var history = StateHistory.of(0);
+        for (int i = 1; i <= 100_000; i++) {
+            history = history.push(i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            history = history.undo();
+        }
+        assertEquals(0, history.state());
+        for (int i = 0; i < 50_000; i++) {
+            history = history.redo();
+        }
+        assertEquals(50_000, history.state());
+        assertEquals(50_000, history.depth());
+    }
+}
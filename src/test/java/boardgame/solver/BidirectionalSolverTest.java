@@ -0,0 +1,45 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.BoardGameState;
+import boardgame.model.Figure;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BidirectionalSolverTest {
+
+    @Test
+    void solveStandardBoardTest(){
+        var start = new BoardGameState(new Figure(), new Figure());
+        var result = new BidirectionalSolver().solve(start);
+        assertTrue(result.solvable());
+        assertEquals(14, result.length());
+        BreadthFirstSolverTest.assertValidSolution(start, result);
+    }
+
+    @Test
+    void sameLengthAsBreadthFirstTest(){
+        for (int size = 4; size <= 28; size += 8) {
+            for (long seed = 0; seed < 25; seed++) {
+                var board = Board.generate(size, size, Math.max(2, size / 3), seed);
+                var start = new BoardGameState(board, new Figure(), new Figure());
+                var expected = new BreadthFirstSolver().solve(start);
+                var result = new BidirectionalSolver().solve(start);
+                assertEquals(expected.length(), result.length(), board.format());
+                if (result.solvable()) {
+                    BreadthFirstSolverTest.assertValidSolution(start, result);
+                }
+            }
+        }
+    }
+
+    @Test
+    void solvedStatesTest(){
+        var board = Board.STANDARD;
+        for (long state : BidirectionalSolver.solvedStates(board)) {
+            assertTrue(board.isSolved(state));
+        }
+        assertEquals(9, BidirectionalSolver.solvedStates(board).length);
+    }
+}
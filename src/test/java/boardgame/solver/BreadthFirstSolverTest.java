@@ -0,0 +1,100 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.BoardGameState;
+import boardgame.model.Direction;
+import boardgame.model.Figure;
+import boardgame.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BreadthFirstSolverTest {
+
+    static void assertValidSolution(BoardGameState start, SolverResult result) {
+        var state = start.clone();
+        for (var move : result.moves()) {
+            assertTrue(state.isLegalMove(move), "Illegal move " + move);
+            state.makeMove(move);
+        }
+        assertTrue(state.isSolved());
+    }
+
+    static void assertMatchesBreadthFirstSolver(Solver solver) {
+        for (long seed = 0; seed < 30; seed++) {
+            var board = Board.generate(7, 7, 3, seed);
+            var expected = new BreadthFirstSolver().solve(board, board.startState());
+            var result = solver.solve(board, board.startState());
+            assertEquals(expected.solvable(), result.solvable());
+            assertEquals(expected.length(), result.length());
+            if (result.solvable()) {
+                assertValidSolution(BoardGameState.fromPacked(board, board.startState()), result);
+            }
+        }
+    }
+
+    static int shortestSolutionLength(BoardGameState start) {
+        var depth = new HashMap<BoardGameState, Integer>();
+        var queue = new ArrayDeque<BoardGameState>();
+        depth.put(start, 0);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            var state = queue.poll();
+            if (state.isSolved()) {
+                return depth.get(state);
+            }
+            for (var move : state.getLegalMoves()) {
+                var next = state.clone();
+                next.makeMove(move);
+                if (!depth.containsKey(next)) {
+                    depth.put(next, depth.get(state) + 1);
+                    queue.add(next);
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    void solveStandardBoardTest(){
+        var start = new BoardGameState(new Figure(), new Figure());
+        var result = new BreadthFirstSolver().solve(start);
+        assertTrue(result.solvable());
+        assertEquals(14, result.length());
+        assertTrue(result.nodesExpanded() > 0);
+        assertValidSolution(start, result);
+    }
+
+    @Test
+    void shortestSolutionTest(){
+        for (long seed = 0; seed < 20; seed++) {
+            var board = Board.generate(6, 6, 4, seed);
+            var start = new BoardGameState(board, new Figure(), new Figure());
+            var result = new BreadthFirstSolver().solve(start);
+            assertEquals(shortestSolutionLength(start), result.length());
+            if (result.solvable()) {
+                assertValidSolution(start, result);
+            }
+        }
+    }
+
+    @Test
+    void solvedStartTest(){
+        var target = new Figure(new Position(7,7), Direction.NONE);
+        var result = new BreadthFirstSolver().solve(new BoardGameState(target, target));
+        assertTrue(result.solvable());
+        assertEquals(0, result.length());
+    }
+
+    @Test
+    void unsolvableTest(){
+        var board = Board.parse("2 2\n0 1\n1 *\n");
+        var result = new BreadthFirstSolver().solve(board, board.startState());
+        assertFalse(result.solvable());
+        assertEquals(-1, result.length());
+        assertEquals(1, result.nodesExpanded());
+    }
+}
@@ -0,0 +1,90 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.BoardGameState;
+import boardgame.model.Direction;
+import boardgame.model.Figure;
+import boardgame.model.PackedState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistanceDatabaseTest {
+
+    private static final DistanceDatabase STANDARD = DistanceDatabase.build(Board.STANDARD);
+
+    @Test
+    void standardBoardTest(){
+        var start = new BoardGameState(new Figure(), new Figure());
+        assertEquals(14, STANDARD.distance(start.toPacked()));
+        assertEquals(0, STANDARD.distance(PackedState.pack(63, Direction.NONE.ordinal(), 63, Direction.NONE.ordinal())));
+        assertFalse(STANDARD.isSolvable(PackedState.pack(2, Direction.NONE.ordinal(), 0, Direction.NONE.ordinal())));
+        assertEquals(DistanceDatabase.UNSOLVABLE, STANDARD.distance(PackedState.pack(2, Direction.NONE.ordinal(), 0, Direction.NONE.ordinal())));
+        assertFalse(STANDARD.isSolvable(PackedState.pack(0, Direction.NONE.ordinal(), 63, Direction.NONE.ordinal())));
+    }
+
+    @Test
+    void sameAsSearchTest(){
+        var board = Board.generate(4, 5, 3, 11);
+        var database = DistanceDatabase.build(board);
+        for (int cell1 = 0; cell1 < board.getCells(); cell1++) {
+            for (int cell2 = 0; cell2 < board.getCells(); cell2++) {
+                for (int lastMove = 0; lastMove < Direction.values().length; lastMove++) {
+                    long state = PackedState.pack(cell1, lastMove, cell2, Direction.NONE.ordinal());
+                    var result = new AStarSolver(true).solve(board, state);
+                    assertEquals(result.length(), database.distance(state));
+                }
+            }
+        }
+    }
+
+    @Test
+    void bestMoveTest(){
+        var moveGenerator = Board.STANDARD.getMoveGenerator();
+        long state = Board.STANDARD.startState();
+        int moves = 0;
+        while (!Board.STANDARD.isSolved(state)) {
+            int distance = STANDARD.distance(state);
+            state = moveGenerator.apply(state, STANDARD.bestMove(state));
+            assertEquals(distance - 1, STANDARD.distance(state));
+            moves++;
+        }
+        assertEquals(14, moves);
+        assertEquals(-1, STANDARD.bestMove(state));
+    }
+
+    @Test
+    void saveAndLoadTest(@TempDir Path directory) throws IOException {
+        var opened = DistanceDatabase.open(Board.STANDARD, directory);
+        var path = directory.resolve(DistanceDatabase.fileName(Board.STANDARD));
+        assertTrue(Files.exists(path));
+        assertEquals(24 + 64 * 64 * 25, Files.size(path));
+
+        var loaded = DistanceDatabase.load(path, Board.STANDARD);
+        assertEquals(STANDARD.solvableStates(), loaded.solvableStates());
+        assertEquals(opened.solvableStates(), loaded.solvableStates());
+        for (int cell = 0; cell < Board.STANDARD.getCells(); cell++) {
+            long state = PackedState.pack(cell, Direction.NONE.ordinal(), 63, Direction.UP.ordinal());
+            assertEquals(STANDARD.distance(state), loaded.distance(state));
+        }
+        assertThrows(IOException.class, () -> DistanceDatabase.load(path, Board.generate(8, 8, 3, 1)));
+    }
+
+    @Test
+    void rebuildInvalidFileTest(@TempDir Path directory) throws IOException {
+        var path = directory.resolve(DistanceDatabase.fileName(Board.STANDARD));
+        Files.write(path, new byte[100]);
+        var opened = DistanceDatabase.open(Board.STANDARD, directory);
+        assertEquals(STANDARD.solvableStates(), opened.solvableStates());
+        assertEquals(24 + 64 * 64 * 25, Files.size(path));
+        assertEquals(STANDARD.solvableStates(), DistanceDatabase.load(path, Board.STANDARD).solvableStates());
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.BoardGameState;
+import boardgame.model.Figure;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExternalBreadthFirstSolverTest {
+
+    @Test
+    void standardTest(@TempDir Path directory) throws IOException {
+        var statistics = new SearchStatistics();
+        var result = new ExternalBreadthFirstSolver(directory, 0, statistics).solve(Board.STANDARD, Board.STANDARD.startState());
+        assertEquals(14, result.length());
+        BreadthFirstSolverTest.assertValidSolution(new BoardGameState(new Figure(), new Figure()), result);
+        assertEquals(result.nodesExpanded(), statistics.getNodesExpanded());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void matchesBreadthFirstSolverTest(@TempDir Path directory){
+        BreadthFirstSolverTest.assertMatchesBreadthFirstSolver(new ExternalBreadthFirstSolver(directory, 0));
+    }
+
+    @Test
+    void manyRunsTest(@TempDir Path directory){
+        var board = Board.generate(16, 16, 5, 3);
+        var expected = new BreadthFirstSolver().solve(board, board.startState());
+        var result = new ExternalBreadthFirstSolver(directory, 0).solve(board, board.startState());
+        assertEquals(expected.solvable(), result.solvable());
+        assertEquals(expected.length(), result.length());
+        if (result.solvable()) {
+            BreadthFirstSolverTest.assertValidSolution(BoardGameState.fromPacked(board, board.startState()), result);
+        }
+    }
+
+    @Test
+    void unsolvableVisitsEveryStateOnceTest(@TempDir Path directory){
+        int unsolvable = 0;
+        for (long seed = 0; seed < 30; seed++) {
+            var board = Board.generate(7, 7, 3, seed);
+            var expected = new SearchStatistics();
+            var actual = new SearchStatistics();
+            var result = new OffHeapBreadthFirstSolver(OffHeapBreadthFirstSolver.DEFAULT_MEMORY_BUDGET, null, expected)
+                    .solve(board, board.startState());
+            if (result.solvable()) {
+                continue;
+            }
+            new ExternalBreadthFirstSolver(directory, 0, actual).solve(board, board.startState());
+            assertEquals(expected.getPeakVisited(), actual.getPeakVisited());
+            assertEquals(expected.getNodesExpanded(), actual.getNodesExpanded());
+            unsolvable++;
+        }
+        assertTrue(unsolvable > 0);
+    }
+
+    @Test
+    void cleanupFailureTest(@TempDir Path directory){
+        var missing = directory.resolve("missing");
+        var failure = new IllegalStateException("search failed");
+        ExternalBreadthFirstSolver.deleteDirectory(missing, failure);
+        assertEquals(1, failure.getSuppressed().length);
+        assertThrows(UncheckedIOException.class, () -> ExternalBreadthFirstSolver.deleteDirectory(missing, null));
+    }
+}
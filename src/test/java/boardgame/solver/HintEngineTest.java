@@ -0,0 +1,75 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.Direction;
+import boardgame.model.PackedState;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HintEngineTest {
+
+    @Test
+    void databaseHintTest(){
+        var board = Board.STANDARD;
+        var distances = DistanceDatabase.build(board);
+        var hints = new LinkedBlockingQueue<HintEngine.Hint>();
+        try (var engine = new HintEngine(new SolveCache(board, 16), distances, Runnable::run)) {
+            engine.requestHint(board.startState(), hints::add);
+            var hint = hints.poll();
+            assertNotNull(hint);
+            assertTrue(hint.exact());
+            assertEquals(13, hint.distance());
+            assertEquals(13, distances.distance(board.getMoveGenerator().apply(board.startState(), hint.move())));
+            assertEquals(board.moveOf(board.startState(), hint.move()).from(), hint.from());
+
+            long unsolvable = PackedState.pack(2, Direction.NONE.ordinal(), 0, Direction.NONE.ordinal());
+            engine.requestHint(unsolvable, hints::add);
+            hint = hints.poll();
+            assertFalse(hint.hasMove());
+            assertEquals(DistanceDatabase.UNSOLVABLE, hint.distance());
+        }
+    }
+
+    @Test
+    void backgroundHintTest() throws InterruptedException {
+        var board = Board.STANDARD;
+        var hints = new LinkedBlockingQueue<HintEngine.Hint>();
+        try (var engine = new HintEngine(new SolveCache(board, 1024), null, Runnable::run)) {
+            engine.requestHint(board.startState(), hints::add);
+            var partial = hints.poll(10, TimeUnit.SECONDS);
+            assertFalse(partial.exact());
+            assertTrue(partial.hasMove());
+            var exact = hints.poll(10, TimeUnit.SECONDS);
+            assertTrue(exact.exact());
+            assertEquals(13, exact.distance());
+
+            long next = board.getMoveGenerator().apply(board.startState(), exact.move());
+            engine.requestHint(next, hints::add);
+            var cached = hints.poll(10, TimeUnit.SECONDS);
+            assertTrue(cached.exact());
+            assertEquals(12, cached.distance());
+            assertNull(hints.poll(100, TimeUnit.MILLISECONDS));
+
+            long solved = PackedState.pack(63, Direction.NONE.ordinal(), 63, Direction.NONE.ordinal());
+            engine.requestHint(solved, hints::add);
+            assertFalse(hints.poll(10, TimeUnit.SECONDS).hasMove());
+        }
+    }
+
+    @Test
+    void staleHintIsDroppedTest() throws InterruptedException {
+        var board = Board.generate(40, 40, 13, 5);
+        var hints = new LinkedBlockingQueue<HintEngine.Hint>();
+        try (var engine = new HintEngine(new SolveCache(board, 1024), null, Runnable::run)) {
+            engine.requestHint(board.startState(), hints::add);
+            engine.cancel();
+            var first = hints.poll(10, TimeUnit.SECONDS);
+            assertFalse(first.exact());
+            assertNull(hints.poll(500, TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.BoardGameState;
+import boardgame.model.Direction;
+import boardgame.model.Figure;
+import boardgame.model.PackedState;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InformedSearchTest {
+
+    @Test
+    void distanceTest(){
+        var heuristic = new DistanceHeuristic(Board.STANDARD);
+        assertEquals(0, heuristic.distance(63));
+        assertEquals(DistanceHeuristic.UNREACHABLE, heuristic.distance(2));
+        assertEquals(0, heuristic.estimate(PackedState.pack(63, Direction.NONE.ordinal(), 63, Direction.UP.ordinal())));
+    }
+
+    @Test
+    void admissibleTest(){
+        for (long seed = 0; seed < 15; seed++) {
+            var board = Board.generate(5, 5, 3, seed);
+            var heuristic = new DistanceHeuristic(board);
+            for (int cell1 = 0; cell1 < board.getCells(); cell1++) {
+                for (int cell2 = 0; cell2 < board.getCells(); cell2++) {
+                    for (int lastMove = 0; lastMove < Direction.values().length; lastMove++) {
+                        long state = PackedState.pack(cell1, lastMove, cell2, Direction.NONE.ordinal());
+                        var result = new BreadthFirstSolver().solve(board, state);
+                        int estimate = heuristic.estimate(state);
+                        if (result.solvable()) {
+                            assertTrue(estimate <= result.length(), "estimate " + estimate + " > " + result.length());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void solveStandardBoardTest(){
+        var start = new BoardGameState(new Figure(), new Figure());
+        for (Solver solver : new Solver[]{new AStarSolver(), new IdaStarSolver()}) {
+            var result = solver.solve(start);
+            assertEquals(14, result.length());
+            BreadthFirstSolverTest.assertValidSolution(start, result);
+        }
+    }
+
+    @Test
+    void sameLengthAsBreadthFirstTest(){
+        for (long seed = 0; seed < 30; seed++) {
+            var board = Board.generate(10, 10, 4, seed);
+            var start = new BoardGameState(board, new Figure(), new Figure());
+            var expected = new BreadthFirstSolver().solve(start);
+            var aStar = new AStarSolver().solve(start);
+            assertEquals(expected.length(), aStar.length());
+            if (expected.solvable()) {
+                BreadthFirstSolverTest.assertValidSolution(start, aStar);
+                assertTrue(aStar.nodesExpanded() <= expected.nodesExpanded());
+                var idaStar = new IdaStarSolver(expected.length()).solve(start);
+                assertEquals(expected.length(), idaStar.length());
+                BreadthFirstSolverTest.assertValidSolution(start, idaStar);
+            }
+        }
+    }
+
+    @Test
+    void depthLimitTest(){
+        var start = new BoardGameState(new Figure(), new Figure());
+        assertFalse(new IdaStarSolver(13).solve(start).solvable());
+    }
+}
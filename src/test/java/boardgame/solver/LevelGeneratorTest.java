@@ -0,0 +1,44 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LevelGeneratorTest {
+
+    @Test
+    void generateTest() throws InterruptedException {
+        var generator = new LevelGenerator(6, 6, 3, 8, 20);
+        var report = generator.generate(3, 1, 10_000, 2);
+        assertEquals(3, report.levels().size());
+        assertTrue(report.tested() >= report.solvable());
+        assertTrue(report.solvable() >= 3);
+        assertTrue(report.boardsPerSecond() > 0);
+        long previousSeed = Long.MIN_VALUE;
+        for (var level : report.levels()) {
+            assertTrue(level.length() >= 8 && level.length() <= 20);
+            assertTrue(level.seed() > previousSeed);
+            previousSeed = level.seed();
+            var loaded = Board.parse(level.board().format());
+            assertEquals(level.length(), new BreadthFirstSolver().solve(loaded, loaded.startState()).length());
+        }
+        var sequential = generator.generate(3, 1, 10_000, 1).levels();
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(report.levels().get(i).seed(), sequential.get(i).seed());
+            assertEquals(report.levels().get(i).board().format(), sequential.get(i).board().format());
+        }
+    }
+
+    @Test
+    void candidateLimitTest() throws InterruptedException {
+        var report = new LevelGenerator(4, 4, 2, 1000, 2000).generate(5, 0, 50, 2);
+        assertTrue(report.levels().isEmpty());
+        assertEquals(50, report.tested());
+    }
+
+    @Test
+    void invalidBandTest(){
+        assertThrows(IllegalArgumentException.class, () -> new LevelGenerator(5, 5, 3, 10, 5));
+    }
+}
@@ -0,0 +1,48 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.BoardGameState;
+import boardgame.model.Figure;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapBreadthFirstSolverTest {
+
+    @Test
+    void standardTest(){
+        var result = new OffHeapBreadthFirstSolver().solve(Board.STANDARD, Board.STANDARD.startState());
+        assertEquals(14, result.length());
+        BreadthFirstSolverTest.assertValidSolution(new BoardGameState(new Figure(), new Figure()), result);
+    }
+
+    @Test
+    void matchesBreadthFirstSolverTest(){
+        BreadthFirstSolverTest.assertMatchesBreadthFirstSolver(new OffHeapBreadthFirstSolver());
+    }
+
+    @Test
+    void spillTest(@TempDir Path directory) throws IOException {
+        var statistics = new SearchStatistics();
+        var result = new OffHeapBreadthFirstSolver(0, directory, statistics).solve(Board.STANDARD, Board.STANDARD.startState());
+        assertEquals(14, result.length());
+        assertEquals(OffHeapBreadthFirstSolver.bytesRequired(Board.STANDARD), statistics.getPeakBytesUsed());
+        assertEquals(result.nodesExpanded(), statistics.getNodesExpanded());
+        assertEquals(statistics.getPeakVisited() - 1, statistics.getGenerated() - statistics.getDuplicates());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void budgetTest(){
+        var solver = new OffHeapBreadthFirstSolver(1024, null);
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(Board.STANDARD, Board.STANDARD.startState()));
+        assertEquals(64L * 64 * 25, OffHeapBreadthFirstSolver.states(Board.STANDARD));
+    }
+}
@@ -0,0 +1,42 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.BoardGameState;
+import boardgame.model.Figure;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelBreadthFirstSolverTest {
+
+    @Test
+    void solveStandardBoardTest(){
+        var start = new BoardGameState(new Figure(), new Figure());
+        var result = new ParallelBreadthFirstSolver(4).solve(start);
+        assertTrue(result.solvable());
+        assertEquals(14, result.length());
+        BreadthFirstSolverTest.assertValidSolution(start, result);
+    }
+
+    @Test
+    void sameLengthAsSequentialTest(){
+        for (int threads : new int[]{1, 3, 8}) {
+            var solver = new ParallelBreadthFirstSolver(threads);
+            for (long seed = 0; seed < 10; seed++) {
+                var board = Board.generate(24, 24, 6, seed);
+                var start = new BoardGameState(board, new Figure(), new Figure());
+                var expected = new BreadthFirstSolver().solve(start);
+                var result = solver.solve(start);
+                assertEquals(expected.length(), result.length());
+                if (result.solvable()) {
+                    BreadthFirstSolverTest.assertValidSolution(start, result);
+                }
+            }
+        }
+    }
+
+    @Test
+    void invalidThreadsTest(){
+        assertThrows(IllegalArgumentException.class, () -> new ParallelBreadthFirstSolver(0));
+    }
+}
@@ -0,0 +1,81 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchStatisticsTest {
+
+    private final List<Function<SearchMetrics, Solver>> solvers = List.of(
+            BreadthFirstSolver::new,
+            AStarSolver::new,
+            metrics -> new IdaStarSolver(Integer.MAX_VALUE, metrics),
+            BidirectionalSolver::new,
+            metrics -> new ParallelBreadthFirstSolver(2, metrics));
+
+    @Test
+    void solversReportTest(){
+        for (var factory : solvers) {
+            var statistics = new SearchStatistics();
+            var solver = factory.apply(statistics);
+            var result = solver.solve(Board.STANDARD, Board.STANDARD.startState());
+            String name = solver.getClass().getSimpleName();
+            assertEquals(14, result.length(), name);
+            assertEquals(1, statistics.getSearches(), name);
+            assertEquals(1, statistics.getSolved(), name);
+            assertEquals(result.nodesExpanded(), statistics.getNodesExpanded(), name);
+            assertTrue(statistics.getGenerated() >= statistics.getDuplicates(), name);
+            assertTrue(statistics.getDuplicates() >= 0, name);
+            assertTrue(statistics.getTimePerDepth().length > 0, name);
+            assertEquals(result.elapsed(), statistics.getElapsed(), name);
+            if (!(solver instanceof IdaStarSolver)) {
+                assertTrue(statistics.getPeakVisited() > 0, name);
+                assertTrue(statistics.getPeakLoadFactor() > 0 && statistics.getPeakLoadFactor() <= 1, name);
+                assertTrue(statistics.getPeakBytesUsed() > 0, name);
+                assertTrue(statistics.getPeakFrontier() > 0, name);
+            }
+        }
+    }
+
+    @Test
+    void breadthFirstDepthsTest(){
+        var statistics = new SearchStatistics();
+        var result = new BreadthFirstSolver(statistics).solve(Board.STANDARD, Board.STANDARD.startState());
+        assertEquals(result.length(), statistics.getTimePerDepth().length);
+        assertTrue(statistics.getGenerated() > statistics.getNodesExpanded());
+    }
+
+    @Test
+    void jsonAndResetTest() throws Exception {
+        var statistics = new SearchStatistics();
+        var solver = new BreadthFirstSolver(statistics);
+        solver.solve(Board.STANDARD, Board.STANDARD.startState());
+        solver.solve(Board.parse("2 2\n0 0\n0 *\n"), 0);
+        assertEquals(2, statistics.getSearches());
+        assertEquals(1, statistics.getSolved());
+
+        var json = new ObjectMapper().readTree(statistics.toJson());
+        assertEquals(2, json.get("searches").asInt());
+        assertEquals(statistics.getNodesExpanded(), json.get("nodesExpanded").asLong());
+        assertEquals(statistics.getTimePerDepth().length, json.get("microsPerDepth").size());
+
+        var out = new StringWriter();
+        try (var writer = new BufferedWriter(out)) {
+            statistics.writeJson(writer);
+            writer.write("\nend");
+        }
+        assertEquals(statistics.toJson() + "\nend", out.toString());
+
+        statistics.reset();
+        assertEquals(0, statistics.getSearches());
+        assertEquals(0, statistics.getNodesExpanded());
+        assertEquals(0, statistics.getTimePerDepth().length);
+    }
+}
@@ -0,0 +1,85 @@
+package boardgame.solver;
+
+import boardgame.model.Board;
+import boardgame.model.Direction;
+import boardgame.model.PackedState;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolveCacheTest {
+
+    private static final DistanceDatabase DISTANCES = DistanceDatabase.build(Board.STANDARD);
+
+    @Test
+    void solutionPathIsCachedTest(){
+        var board = Board.STANDARD;
+        var cache = new SolveCache(board, 1024);
+        long state = board.startState();
+        var entry = cache.get(state);
+        assertEquals(14, entry.distance());
+        assertEquals(1, cache.misses());
+        assertEquals(15, cache.size());
+
+        var moveGenerator = board.getMoveGenerator();
+        while (!board.isSolved(state)) {
+            var next = cache.get(state);
+            assertEquals(DISTANCES.distance(state), next.distance());
+            state = moveGenerator.apply(state, next.move());
+            assertEquals(next.distance() - 1, DISTANCES.distance(state));
+        }
+        assertEquals(0, cache.get(state).distance());
+        assertEquals(-1, cache.get(state).move());
+        assertEquals(1, cache.misses());
+        assertEquals(16, cache.hits());
+    }
+
+    @Test
+    void unsolvableTest(){
+        var cache = new SolveCache(Board.STANDARD, 16);
+        long state = PackedState.pack(2, Direction.NONE.ordinal(), 0, Direction.NONE.ordinal());
+        assertFalse(cache.get(state).solvable());
+        assertFalse(cache.get(state).solvable());
+        assertEquals(1, cache.hits());
+        assertEquals(DistanceDatabase.UNSOLVABLE, cache.lookup(state).distance());
+    }
+
+    @Test
+    void clockEvictionTest(){
+        var cache = new SolveCache(Board.STANDARD, 4);
+        for (long state = 0; state < 4; state++) {
+            cache.put(state, new SolveCache.Entry(0, (int) state));
+        }
+        assertNotNull(cache.lookup(0));
+        assertNotNull(cache.lookup(2));
+        cache.put(10, new SolveCache.Entry(0, 10));
+        cache.put(11, new SolveCache.Entry(0, 11));
+        assertEquals(2, cache.evictions());
+        assertEquals(4, cache.size());
+        assertNotNull(cache.lookup(0));
+        assertNotNull(cache.lookup(2));
+        assertNull(cache.lookup(1));
+        assertNull(cache.lookup(3));
+        assertEquals(10, cache.lookup(10).distance());
+        assertEquals(11, cache.lookup(11).distance());
+        assertEquals(0.75, cache.hitRate());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.lookup(10));
+    }
+
+    @Test
+    void matchesDistanceDatabaseTest(){
+        var board = Board.STANDARD;
+        var cache = new SolveCache(board, 64);
+        for (int cell1 = 0; cell1 < board.getCells(); cell1 += 5) {
+            for (int cell2 = 0; cell2 < board.getCells(); cell2 += 7) {
+                long state = PackedState.pack(cell1, Direction.NONE.ordinal(), cell2, Direction.NONE.ordinal());
+                assertEquals(DISTANCES.distance(state), cache.get(state).distance());
+            }
+        }
+        assertTrue(cache.evictions() > 0);
+        assertTrue(cache.size() <= 64);
+    }
+}
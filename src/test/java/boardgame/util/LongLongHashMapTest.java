@@ -0,0 +1,60 @@
+package boardgame.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongLongHashMapTest {
+
+    @Test
+    void putAndGetTest(){
+        var map = new LongLongHashMap(2);
+        assertTrue(map.putIfAbsent(0, 10));
+        assertFalse(map.putIfAbsent(0, 20));
+        assertEquals(10, map.get(0, -1));
+        map.put(0, 30);
+        assertEquals(30, map.get(0, -1));
+        assertEquals(-1, map.get(1, -1));
+        assertFalse(map.containsKey(1));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void matchesHashMapTest(){
+        var map = new LongLongHashMap(4);
+        var expected = new HashMap<Long, Long>();
+        var random = new SplittableRandom(1);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextLong(1L << 62);
+            long value = random.nextLong();
+            assertEquals(!expected.containsKey(key), map.putIfAbsent(key, value));
+            expected.putIfAbsent(key, value);
+        }
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals((long) value, map.get(key, -1)));
+        assertTrue(map.loadFactor() <= 0.5);
+    }
+
+    @Test
+    void removeTest(){
+        var map = new LongLongHashMap(4);
+        var expected = new HashMap<Long, Long>();
+        var random = new SplittableRandom(2);
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextLong(5_000);
+            if (random.nextBoolean()) {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            } else {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals((long) expected.getOrDefault(key, -1L), map.get(key, -1));
+        }
+    }
+}
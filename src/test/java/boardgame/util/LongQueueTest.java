@@ -0,0 +1,28 @@
+package boardgame.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongQueueTest {
+
+    @Test
+    void fifoTest(){
+        var queue = new LongQueue(2);
+        assertTrue(queue.isEmpty());
+        long next = 0;
+        for (long i = 0; i < 1000; i++) {
+            queue.add(i);
+            if (i % 3 == 0) {
+                assertEquals(next++, queue.poll());
+            }
+        }
+        assertEquals(1000 - next, queue.size());
+        while (!queue.isEmpty()) {
+            assertEquals(next++, queue.poll());
+        }
+        assertThrows(NoSuchElementException.class, queue::poll);
+    }
+}
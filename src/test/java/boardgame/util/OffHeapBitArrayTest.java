@@ -0,0 +1,80 @@
+package boardgame.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapBitArrayTest {
+
+    private static void checkArray(OffHeapBitArray array, int bitsPerValue) {
+        var random = new Random(5);
+        int[] expected = new int[(int) array.length()];
+        for (int i = 0; i < 10_000; i++) {
+            int index = random.nextInt(expected.length);
+            int value = random.nextInt(1 << bitsPerValue);
+            array.set(index, value);
+            expected[index] = value;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], array.get(i));
+        }
+        int valuesPerWord = array.valuesPerWord();
+        for (long word = 0; word < array.words(); word++) {
+            long bits = array.getWord(word);
+            for (int lane = 0; lane < valuesPerWord && word * valuesPerWord + lane < expected.length; lane++) {
+                assertEquals(expected[(int) (word * valuesPerWord + lane)],
+                        (int) (bits >>> (bitsPerValue * lane) & ((1 << bitsPerValue) - 1)));
+            }
+        }
+    }
+
+    @Test
+    void directTest() throws IOException {
+        try (var array = OffHeapBitArray.allocateDirect(1000, 2)) {
+            assertEquals(1000, array.length());
+            assertEquals(32, array.valuesPerWord());
+            assertEquals(32, array.words());
+            assertEquals(256, array.bytesUsed());
+            assertFalse(array.isMapped());
+            checkArray(array, 2);
+        }
+    }
+
+    @Test
+    void closeTest() throws IOException {
+        var bits = OffHeapBitArray.allocateDirect(1000, 1);
+        assertEquals(64, bits.valuesPerWord());
+        assertEquals(16, bits.words());
+        checkArray(bits, 1);
+        bits.close();
+        assertThrows(IllegalStateException.class, () -> bits.get(0));
+    }
+
+    @Test
+    void mappedTest(@TempDir Path directory) throws IOException {
+        try (var array = OffHeapBitArray.map(4097, 2, directory)) {
+            assertTrue(array.isMapped());
+            checkArray(array, 2);
+        }
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void bytesRequiredTest(){
+        assertEquals(0, OffHeapBitArray.bytesRequired(0, 2));
+        assertEquals(8, OffHeapBitArray.bytesRequired(1, 2));
+        assertEquals(8, OffHeapBitArray.bytesRequired(32, 2));
+        assertEquals(16, OffHeapBitArray.bytesRequired(33, 2));
+        assertEquals(8, OffHeapBitArray.bytesRequired(64, 1));
+        assertEquals(1L << 31, OffHeapBitArray.bytesRequired(1L << 33, 2));
+        assertThrows(IllegalArgumentException.class, () -> OffHeapBitArray.bytesRequired(1, 3));
+    }
+}